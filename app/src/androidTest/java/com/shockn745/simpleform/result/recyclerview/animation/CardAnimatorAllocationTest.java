@@ -0,0 +1,102 @@
+package com.shockn745.simpleform.result.recyclerview.animation;
+
+import android.content.Context;
+import android.os.Debug;
+import android.support.v7.widget.RecyclerView;
+import android.test.InstrumentationTestCase;
+import android.view.View;
+
+/**
+ * Counts the allocations of {@link CardAnimator} in steady state.
+ *
+ * The animator is driven directly, without a RecyclerView, and its animations by a
+ * {@link VirtualFrameClock} : every cycle completes synchronously on the main thread, where the
+ * allocations are counted.
+ */
+public class CardAnimatorAllocationTest extends InstrumentationTestCase {
+
+    private static final int HOLDERS = 8;
+    private static final int WARM_UP_CYCLES = 50;
+    private static final int CYCLES = 1000;
+    private static final long FRAME_NANOS = 16666667L;
+    // Bound of the frames run per animation phase
+    private static final int MAX_FRAMES = 1000;
+
+    private CardAnimator mAnimator;
+    private VirtualFrameClock mClock;
+    private RecyclerView.ViewHolder[] mHolders;
+
+    private int mAllocations;
+    private boolean mAllFinished;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        final Context context = getInstrumentation().getTargetContext();
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mClock = new VirtualFrameClock(0);
+                mAnimator = new CardAnimator(context);
+                mAnimator.setFrameClock(mClock);
+                mHolders = new RecyclerView.ViewHolder[HOLDERS];
+                for (int i = 0; i < HOLDERS; i++) {
+                    mHolders[i] = new RecyclerView.ViewHolder(new View(context)) {};
+                }
+            }
+        });
+    }
+
+    /**
+     * Add every holder, move them, then remove them, each phase running to its end
+     * @return true if every animation finished
+     */
+    private boolean runCycle() {
+        for (RecyclerView.ViewHolder holder : mHolders) {
+            mAnimator.animateAdd(holder);
+        }
+        boolean finished = runAnimations();
+        for (int i = 0; i < HOLDERS; i++) {
+            mAnimator.animateMove(mHolders[i], 0, 0, 0, 100 + i);
+        }
+        finished &= runAnimations();
+        for (RecyclerView.ViewHolder holder : mHolders) {
+            mAnimator.animateRemove(holder);
+        }
+        finished &= runAnimations();
+        return finished;
+    }
+
+    private boolean runAnimations() {
+        mAnimator.runPendingAnimations();
+        for (int frame = 0; frame < MAX_FRAMES && mAnimator.isRunning(); frame++) {
+            mClock.advance(FRAME_NANOS);
+        }
+        return !mAnimator.isRunning();
+    }
+
+    public void testSteadyStateIsAllocationFree() {
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                // Fill the pools
+                boolean finished = true;
+                for (int i = 0; i < WARM_UP_CYCLES; i++) {
+                    finished &= runCycle();
+                }
+
+                Debug.startAllocCounting();
+                Debug.resetThreadAllocCount();
+                for (int i = 0; i < CYCLES; i++) {
+                    finished &= runCycle();
+                }
+                mAllocations = Debug.getThreadAllocCount();
+                Debug.stopAllocCounting();
+                mAllFinished = finished;
+            }
+        });
+
+        assertTrue(mAllFinished);
+        assertEquals(0, mAllocations);
+    }
+}
@@ -0,0 +1,96 @@
+package com.shockn745.simpleform.result.recyclerview.animation;
+
+import android.content.Context;
+import android.support.v7.widget.RecyclerView;
+import android.test.InstrumentationTestCase;
+import android.util.Log;
+import android.view.View;
+
+/**
+ * Benchmark of {@link CardAnimator#endAnimation(RecyclerView.ViewHolder)} with hundreds of
+ * simultaneous animations : with the holder index, the cost per holder doesn't depend on the
+ * number of animations in flight.
+ */
+public class CardAnimatorIndexBenchmarkTest extends InstrumentationTestCase {
+
+    private static final String TAG = "CardAnimatorBenchmark";
+    private static final int SMALL = 100;
+    private static final int LARGE = 800;
+    private static final int RUNS = 5;
+    // A scan of the lists would make the cost per holder grow as LARGE / SMALL = 8
+    private static final float MAX_COST_RATIO = 4f;
+
+    private Context mContext;
+    private RecyclerView.ViewHolder[] mHolders;
+    private final long[] mNanosPerHolder = new long[2];
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mContext = getInstrumentation().getTargetContext();
+        mHolders = new RecyclerView.ViewHolder[LARGE];
+        for (int i = 0; i < LARGE; i++) {
+            mHolders[i] = new RecyclerView.ViewHolder(new View(mContext)) {};
+        }
+    }
+
+    /**
+     * Start count moves, then end them one by one
+     * @param count Number of simultaneous animations
+     * @param running true to end running animations, false for pending ones
+     * @return Nanoseconds spent ending the animations, per holder
+     */
+    private long endEach(int count, boolean running) {
+        CardAnimator animator = new CardAnimator(mContext);
+        animator.setFrameClock(new VirtualFrameClock(0));
+        for (int i = 0; i < count; i++) {
+            animator.animateMove(mHolders[i], 0, 0, 0, 100);
+        }
+        if (running) {
+            animator.runPendingAnimations();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            animator.endAnimation(mHolders[i]);
+        }
+        long nanosPerHolder = (System.nanoTime() - start) / count;
+        assertFalse(animator.isRunning());
+        return nanosPerHolder;
+    }
+
+    /**
+     * @return Best of several runs, for count animations
+     */
+    private long bestOf(int count, boolean running) {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            best = Math.min(best, endEach(count, running));
+        }
+        return best;
+    }
+
+    private void benchmark(final boolean running) {
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                // Warm up
+                bestOf(LARGE, running);
+                mNanosPerHolder[0] = bestOf(SMALL, running);
+                mNanosPerHolder[1] = bestOf(LARGE, running);
+            }
+        });
+        Log.i(TAG, (running ? "running" : "pending") + " animations, ns per endAnimation : "
+                + SMALL + " in flight " + mNanosPerHolder[0] + ", "
+                + LARGE + " in flight " + mNanosPerHolder[1]);
+        assertTrue(mNanosPerHolder[1] < MAX_COST_RATIO * Math.max(1, mNanosPerHolder[0]));
+    }
+
+    public void testEndingPendingAnimationsIsConstantTime() {
+        benchmark(false);
+    }
+
+    public void testEndingRunningAnimationsIsConstantTime() {
+        benchmark(true);
+    }
+}
@@ -0,0 +1,217 @@
+package com.shockn745.simpleform.result.recyclerview.animation;
+
+import android.content.Context;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.test.InstrumentationTestCase;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Counts the allocations of {@link SwipeDismissRecyclerViewTouchListener} while synthetic
+ * {@link MotionEvent} streams are sent to it.
+ *
+ * The RecyclerView is measured & laid out by hand, without a window, and the swiped card is
+ * updated by a {@link VirtualFrameClock}. The events are obtained before counting.
+ */
+public class SwipeDismissAllocationTest extends InstrumentationTestCase {
+
+    private static final int WIDTH = 1000;
+    private static final int HEIGHT = 1000;
+    private static final int CARD_HEIGHT = 200;
+    private static final int CARDS = 10;
+    private static final int MOVES = 40;
+    private static final long EVENT_INTERVAL_MS = 16;
+    private static final long FRAME_NANOS = 16666667L;
+    private static final int WARM_UP_GESTURES = 20;
+    private static final int GESTURES = 500;
+
+    private RecyclerView mRecyclerView;
+    private SwipeDismissRecyclerViewTouchListener mListener;
+    private VirtualFrameClock mClock;
+
+    // Swipe of a quarter of the card : not far nor fast enough to dismiss it
+    private MotionEvent mSwipeDown;
+    private MotionEvent[] mSwipeMoves;
+    private MotionEvent mSwipeUp;
+    // Tap, the finger doesn't move
+    private MotionEvent mTapDown;
+    private MotionEvent mTapUp;
+
+    private int mAllocations;
+    private boolean mSwiped;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        final Context context = getInstrumentation().getTargetContext();
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mRecyclerView = new RecyclerView(context);
+                mRecyclerView.setLayoutManager(new LinearLayoutManager(context));
+                mRecyclerView.setItemAnimator(null);
+                mRecyclerView.setAdapter(new RecyclerView.Adapter<RecyclerView.ViewHolder>() {
+                    @Override
+                    public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent,
+                                                                      int viewType) {
+                        View view = new View(context);
+                        view.setLayoutParams(new ViewGroup.LayoutParams(
+                                ViewGroup.LayoutParams.MATCH_PARENT, CARD_HEIGHT));
+                        return new RecyclerView.ViewHolder(view) {};
+                    }
+
+                    @Override
+                    public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {}
+
+                    @Override
+                    public int getItemCount() {
+                        return CARDS;
+                    }
+                });
+                mRecyclerView.measure(
+                        View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                        View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY)
+                );
+                mRecyclerView.layout(0, 0, WIDTH, HEIGHT);
+
+                mClock = new VirtualFrameClock(0);
+                mListener = new SwipeDismissRecyclerViewTouchListener(
+                        mRecyclerView,
+                        new SwipeDismissRecyclerViewTouchListener.DismissCallbacks() {
+                            @Override
+                            public boolean canDismiss(int position) {
+                                return true;
+                            }
+
+                            @Override
+                            public void onDismiss(RecyclerView recyclerView, int position) {}
+
+                            @Override
+                            public void onDismissBatch(RecyclerView recyclerView,
+                                                       int[] reverseSortedPositions,
+                                                       int count) {}
+                        },
+                        null
+                );
+                mListener.setPipelinedDismiss(true);
+                mListener.setFrameClock(mClock);
+            }
+        });
+
+        long time = SystemClock.uptimeMillis();
+        float x = WIDTH / 2;
+        float y = CARD_HEIGHT / 2;
+        mSwipeDown = MotionEvent.obtain(time, time, MotionEvent.ACTION_DOWN, x, y, 0);
+        mSwipeMoves = new MotionEvent[MOVES];
+        for (int i = 0; i < MOVES; i++) {
+            mSwipeMoves[i] = MotionEvent.obtain(
+                    time,
+                    time + (i + 1) * EVENT_INTERVAL_MS,
+                    MotionEvent.ACTION_MOVE,
+                    x + (i + 1) * (WIDTH / 4) / MOVES,
+                    y,
+                    0
+            );
+        }
+        long upTime = time + (MOVES + 1) * EVENT_INTERVAL_MS;
+        mSwipeUp = MotionEvent.obtain(
+                time, upTime, MotionEvent.ACTION_UP, x + WIDTH / 4, y, 0);
+        mTapDown = MotionEvent.obtain(upTime, upTime, MotionEvent.ACTION_DOWN, x, y, 0);
+        mTapUp = MotionEvent.obtain(
+                upTime, upTime + EVENT_INTERVAL_MS, MotionEvent.ACTION_UP, x, y, 0);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mSwipeDown.recycle();
+        for (MotionEvent move : mSwipeMoves) {
+            move.recycle();
+        }
+        mSwipeUp.recycle();
+        mTapDown.recycle();
+        mTapUp.recycle();
+        super.tearDown();
+    }
+
+    /**
+     * Send the down & move events of a swipe, running a frame after each move
+     */
+    private void swipe() {
+        mListener.onTouch(mRecyclerView, mSwipeDown);
+        for (MotionEvent move : mSwipeMoves) {
+            mListener.onTouch(mRecyclerView, move);
+            mClock.advance(FRAME_NANOS);
+        }
+    }
+
+    /**
+     * Send the up event of a swipe, then put the card back in place right away
+     */
+    private void release() {
+        mListener.onTouch(mRecyclerView, mSwipeUp);
+        View card = mRecyclerView.getChildAt(0);
+        card.animate().cancel();
+        card.setTranslationX(0);
+        card.setAlpha(1);
+    }
+
+    private void tap() {
+        mListener.onTouch(mRecyclerView, mTapDown);
+        mListener.onTouch(mRecyclerView, mTapUp);
+    }
+
+    public void testSwipeIsAllocationFree() {
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < WARM_UP_GESTURES; i++) {
+                    swipe();
+                    release();
+                }
+
+                // The up event starts the return animation of the framework : not counted
+                Debug.startAllocCounting();
+                int allocations = 0;
+                boolean swiped = true;
+                for (int i = 0; i < GESTURES; i++) {
+                    Debug.resetThreadAllocCount();
+                    swipe();
+                    allocations += Debug.getThreadAllocCount();
+                    swiped &= mRecyclerView.getChildAt(0).getTranslationX() > 0;
+                    release();
+                }
+                Debug.stopAllocCounting();
+                mAllocations = allocations;
+                mSwiped = swiped;
+            }
+        });
+
+        assertTrue(mSwiped);
+        assertEquals(0, mAllocations);
+    }
+
+    public void testTapIsAllocationFree() {
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < WARM_UP_GESTURES; i++) {
+                    tap();
+                }
+
+                Debug.startAllocCounting();
+                Debug.resetThreadAllocCount();
+                for (int i = 0; i < GESTURES; i++) {
+                    tap();
+                }
+                mAllocations = Debug.getThreadAllocCount();
+                Debug.stopAllocCounting();
+            }
+        });
+
+        assertEquals(0, mAllocations);
+    }
+}
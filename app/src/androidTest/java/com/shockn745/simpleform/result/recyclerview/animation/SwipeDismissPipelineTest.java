@@ -0,0 +1,207 @@
+package com.shockn745.simpleform.result.recyclerview.animation;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.test.InstrumentationTestCase;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pipelined dismissals of {@link SwipeDismissRecyclerViewTouchListener} whose card is scrolled
+ * off screen, and its view recycled, before the batch is removed.
+ *
+ * The RecyclerView is measured & laid out by hand, without a window, and keeps no view in its
+ * cache : a card scrolled off goes straight to the pool and is rebound to another item.
+ */
+public class SwipeDismissPipelineTest extends InstrumentationTestCase {
+
+    private static final int WIDTH = 1000;
+    private static final int HEIGHT = 1000;
+    private static final int CARD_HEIGHT = 200;
+    private static final int CARDS = 50;
+    private static final int MOVES = 10;
+    private static final long EVENT_INTERVAL_MS = 16;
+    // Longer than the dismiss animation
+    private static final long ANIMATION_WAIT_MS = 1000;
+
+    private RecyclerView mRecyclerView;
+    private SwipeDismissRecyclerViewTouchListener mListener;
+    // Items of the adapter, the item of a card is its initial position
+    private final List<Integer> mItems = new ArrayList<>();
+    private final List<Integer> mRemovedItems = new ArrayList<>();
+
+    private View mSwipedView;
+    private boolean mSwipedViewRecycled;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        final Context context = getInstrumentation().getTargetContext();
+        for (int i = 0; i < CARDS; i++) {
+            mItems.add(i);
+        }
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mRecyclerView = new RecyclerView(context);
+                mRecyclerView.setLayoutManager(new LinearLayoutManager(context));
+                mRecyclerView.setItemAnimator(null);
+                mRecyclerView.setItemViewCacheSize(0);
+                final RecyclerView.Adapter<RecyclerView.ViewHolder> adapter =
+                        new RecyclerView.Adapter<RecyclerView.ViewHolder>() {
+                    @Override
+                    public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent,
+                                                                      int viewType) {
+                        View view = new View(context);
+                        view.setLayoutParams(new ViewGroup.LayoutParams(
+                                ViewGroup.LayoutParams.MATCH_PARENT, CARD_HEIGHT));
+                        return new RecyclerView.ViewHolder(view) {};
+                    }
+
+                    @Override
+                    public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {}
+
+                    @Override
+                    public int getItemCount() {
+                        return mItems.size();
+                    }
+                };
+                mRecyclerView.setAdapter(adapter);
+                mRecyclerView.measure(
+                        View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                        View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY)
+                );
+                mRecyclerView.layout(0, 0, WIDTH, HEIGHT);
+
+                mListener = new SwipeDismissRecyclerViewTouchListener(
+                        mRecyclerView,
+                        new SwipeDismissRecyclerViewTouchListener.DismissCallbacks() {
+                            @Override
+                            public boolean canDismiss(int position) {
+                                return true;
+                            }
+
+                            @Override
+                            public void onDismiss(RecyclerView recyclerView, int position) {}
+
+                            @Override
+                            public void onDismissBatch(RecyclerView recyclerView,
+                                                       int[] reverseSortedPositions,
+                                                       int count) {
+                                for (int i = 0; i < count; i++) {
+                                    mRemovedItems.add(mItems.remove(reverseSortedPositions[i]));
+                                    adapter.notifyItemRemoved(reverseSortedPositions[i]);
+                                }
+                            }
+                        },
+                        null
+                );
+                mListener.setPipelinedDismiss(true);
+            }
+        });
+    }
+
+    /**
+     * Send a gesture to the listener
+     * @param fromX Position of the down event
+     * @param toX Position of the up event, the moves are in between
+     * @param y Vertical position of the gesture
+     */
+    private void sendGesture(float fromX, float toX, float y) {
+        long time = SystemClock.uptimeMillis();
+        send(MotionEvent.obtain(time, time, MotionEvent.ACTION_DOWN, fromX, y, 0));
+        for (int i = 1; i <= MOVES; i++) {
+            send(MotionEvent.obtain(time, time + i * EVENT_INTERVAL_MS,
+                    MotionEvent.ACTION_MOVE, fromX + (toX - fromX) * i / MOVES, y, 0));
+        }
+        send(MotionEvent.obtain(time, time + (MOVES + 1) * EVENT_INTERVAL_MS,
+                MotionEvent.ACTION_UP, toX, y, 0));
+    }
+
+    private void send(MotionEvent event) {
+        mListener.onTouch(mRecyclerView, event);
+        event.recycle();
+    }
+
+    /**
+     * Swipe the first card out, to the right
+     */
+    private void swipeFirstCardOut() {
+        mSwipedView = mRecyclerView.getChildAt(0);
+        sendGesture(WIDTH / 10, WIDTH * 9 / 10, CARD_HEIGHT / 2);
+    }
+
+    /**
+     * Scroll the first cards off screen, then insert an item at the top : the dismissed card is
+     * no longer at the position it was swiped at, nor shown by the view it was swiped in
+     */
+    private void scrollOffAndInsert() {
+        mRecyclerView.scrollBy(0, CARD_HEIGHT * CARDS / 2);
+        mSwipedViewRecycled = mSwipedView.getParent() == null
+                || mRecyclerView.getChildAdapterPosition(mSwipedView) != 0;
+        mItems.add(0, -1);
+        mRecyclerView.getAdapter().notifyItemInserted(0);
+    }
+
+    private void assertFirstCardRemoved() {
+        assertTrue(mSwipedViewRecycled);
+        assertEquals(1, mRemovedItems.size());
+        assertEquals(0, (int) mRemovedItems.get(0));
+        assertEquals(CARDS, mItems.size());
+        assertEquals(-1, (int) mItems.get(0));
+        assertEquals(1, (int) mItems.get(1));
+        // Rebound to another card : visible & in place
+        assertEquals(1f, mSwipedView.getAlpha());
+        assertEquals(0f, mSwipedView.getTranslationX());
+    }
+
+    public void testCardRecycledDuringDismissAnimation() {
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                swipeFirstCardOut();
+                scrollOffAndInsert();
+            }
+        });
+        // The batch is posted on the main thread
+        getInstrumentation().waitForIdleSync();
+
+        assertFirstCardRemoved();
+    }
+
+    public void testCardRecycledWhileWaitingForTheBatch() throws InterruptedException {
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                swipeFirstCardOut();
+                // A finger down on another card holds the batch back
+                long time = SystemClock.uptimeMillis();
+                send(MotionEvent.obtain(time, time, MotionEvent.ACTION_DOWN,
+                        WIDTH / 2, CARD_HEIGHT * 5 / 2, 0));
+            }
+        });
+        // End of the dismiss animation, the batch still waits for the finger
+        Thread.sleep(ANIMATION_WAIT_MS);
+        getInstrumentation().waitForIdleSync();
+        assertTrue(mRemovedItems.isEmpty());
+
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                scrollOffAndInsert();
+                long time = SystemClock.uptimeMillis();
+                send(MotionEvent.obtain(time, time, MotionEvent.ACTION_UP,
+                        WIDTH / 2, CARD_HEIGHT * 5 / 2, 0));
+            }
+        });
+        getInstrumentation().waitForIdleSync();
+
+        assertFirstCardRemoved();
+    }
+}
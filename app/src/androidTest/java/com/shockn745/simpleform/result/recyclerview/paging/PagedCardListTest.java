@@ -0,0 +1,159 @@
+package com.shockn745.simpleform.result.recyclerview.paging;
+
+import android.test.InstrumentationTestCase;
+
+import com.shockn745.simpleform.result.recyclerview.Card;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pages are loaded by AsyncTasks : the list is used from the main thread, the test thread waits
+ * for the pages to load.
+ */
+public class PagedCardListTest extends InstrumentationTestCase {
+
+    private static final int COUNT = 10000;
+    private static final int PAGE_SIZE = 50;
+    private static final int PREFETCH_DISTANCE = 10;
+    private static final int KEPT_PAGES = 1;
+
+    /**
+     * Counts the cards loaded for each page
+     */
+    private static class CountingDataSource implements CardDataSource {
+        final AtomicInteger mLoadedCards = new AtomicInteger();
+        final AtomicInteger[] mPageLoads = new AtomicInteger[COUNT / PAGE_SIZE];
+
+        CountingDataSource() {
+            for (int i = 0; i < mPageLoads.length; i++) {
+                mPageLoads[i] = new AtomicInteger();
+            }
+        }
+
+        @Override
+        public int getCount() {
+            return COUNT;
+        }
+
+        @Override
+        public List<Card> loadRange(int start, int count) {
+            mPageLoads[start / PAGE_SIZE].incrementAndGet();
+            mLoadedCards.addAndGet(count);
+            List<Card> cards = new ArrayList<>(count);
+            for (int i = start; i < start + count; i++) {
+                cards.add(new Card("header", "content " + i));
+            }
+            return cards;
+        }
+    }
+
+    private CountingDataSource mDataSource;
+    private PagedCardList mPagedList;
+    private volatile CountDownLatch mPageLatch;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mDataSource = new CountingDataSource();
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mPagedList = new PagedCardList(
+                        mDataSource, PAGE_SIZE, PREFETCH_DISTANCE, KEPT_PAGES);
+                mPagedList.setCallback(new PagedCardList.Callback() {
+                    @Override
+                    public void onPageLoaded(int start, int count) {
+                        CountDownLatch latch = mPageLatch;
+                        if (latch != null) {
+                            latch.countDown();
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mPagedList.clear();
+            }
+        });
+        super.tearDown();
+    }
+
+    /**
+     * Get a card from the main thread
+     */
+    private Card get(final int position) {
+        final Card[] card = new Card[1];
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                card[0] = mPagedList.get(position);
+            }
+        });
+        return card[0];
+    }
+
+    /**
+     * Get a card, waiting for its page to load if needed
+     */
+    private Card getLoaded(int position) throws InterruptedException {
+        mPageLatch = new CountDownLatch(1);
+        Card card = get(position);
+        while (card == null) {
+            assertTrue(mPageLatch.await(5, TimeUnit.SECONDS));
+            mPageLatch = new CountDownLatch(1);
+            card = get(position);
+        }
+        return card;
+    }
+
+    public void testSizeDoesNotLoadCards() {
+        assertEquals(COUNT, mPagedList.size());
+        assertEquals(0, mDataSource.mLoadedCards.get());
+    }
+
+    public void testPlaceholderUntilPageLoaded() throws InterruptedException {
+        assertNull(get(120));
+        assertEquals("content 120", getLoaded(120).getContent());
+        // Only the page of the position
+        assertEquals(1, mDataSource.mPageLoads[2].get());
+        assertEquals(0, mDataSource.mPageLoads[1].get());
+        assertEquals(0, mDataSource.mPageLoads[3].get());
+    }
+
+    public void testNextPagePrefetchedNearBoundary() throws InterruptedException {
+        mPageLatch = new CountDownLatch(2);
+        get(PAGE_SIZE - 1);
+        assertTrue(mPageLatch.await(5, TimeUnit.SECONDS));
+        assertEquals(1, mDataSource.mPageLoads[1].get());
+        // Already loaded : no new load
+        assertEquals("content " + PAGE_SIZE, getLoaded(PAGE_SIZE).getContent());
+        assertEquals(1, mDataSource.mPageLoads[1].get());
+    }
+
+    public void testFarPagesAreDropped() throws InterruptedException {
+        getLoaded(0);
+        getLoaded(10 * PAGE_SIZE);
+        // Page 0 was dropped : accessing it again loads it again
+        assertNull(get(0));
+        assertEquals("content 0", getLoaded(0).getContent());
+        assertEquals(2, mDataSource.mPageLoads[0].get());
+    }
+
+    public void testScrollingThroughEverythingKeepsFewPages() throws InterruptedException {
+        for (int position = 0; position < COUNT; position += PAGE_SIZE / 2) {
+            getLoaded(position);
+        }
+        // Each page is loaded about once : the prefetch keeps ahead of the scroll
+        assertTrue(mDataSource.mLoadedCards.get() <= COUNT + 2 * PAGE_SIZE);
+    }
+}
@@ -6,8 +6,6 @@ import android.content.Context;
 import android.os.Build;
 import android.view.View;
 import android.view.ViewAnimationUtils;
-import android.view.animation.AnimationUtils;
-import android.view.animation.DecelerateInterpolator;
 import android.view.animation.Interpolator;
 
 /**
@@ -45,11 +43,7 @@ public class AnimCompatUtils {
             Animator revealAnim = ViewAnimationUtils
                     .createCircularReveal(toReveal, centerX, centerY, startRadius, finalRadius)
                     .setDuration(duration);
-            Interpolator interpolator = AnimationUtils.loadInterpolator(
-                    context,
-                    android.R.interpolator.fast_out_slow_in
-            );
-            revealAnim.setInterpolator(interpolator);
+            revealAnim.setInterpolator(AnimResources.get(context).getInterpolator());
 
             return revealAnim;
         } else {
@@ -73,26 +67,20 @@ public class AnimCompatUtils {
                 );
             }
 
-            alphaAnim.setInterpolator(new DecelerateInterpolator());
+            alphaAnim.setInterpolator(AnimResources.get(context).getDecelerateInterpolator());
 
             return alphaAnim;
         }
     }
 
     /**
-     * Create either a fast_out_slow_in_interpolator or a deccelerate_interpolator
+     * Get either a fast_out_slow_in_interpolator or a deccelerate_interpolator
      * depending on the API level
+     * The interpolator is shared, see {@link AnimResources}
      * @param context Context to access resources
-     * @return The generated interpolator
+     * @return The shared interpolator
      */
     public static Interpolator createInterpolator(Context context) {
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-            return AnimationUtils.loadInterpolator(
-                    context,
-                    android.R.interpolator.fast_out_slow_in
-            );
-        } else {
-            return new DecelerateInterpolator();
-        }
+        return AnimResources.get(context).getInterpolator();
     }
 }
@@ -0,0 +1,145 @@
+package com.shockn745.simpleform;
+
+import android.content.ComponentCallbacks;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.graphics.Point;
+import android.os.Build;
+import android.view.Display;
+import android.view.WindowManager;
+import android.view.animation.AnimationUtils;
+import android.view.animation.DecelerateInterpolator;
+import android.view.animation.Interpolator;
+
+/**
+ * Cache of the resources used by the animations : screen dimensions, interpolators & durations.
+ * Shared by every animation, so that no resource is parsed and no system service is looked up
+ * each time a view is animated.
+ *
+ * The values depending on the configuration (screen, refresh rate & durations, which may be
+ * overridden by qualified resources) are reloaded lazily after a configuration change.
+ * Interpolators are stateless, a single instance of each is shared.
+ *
+ * Must only be used from the main thread.
+ */
+public class AnimResources implements ComponentCallbacks {
+
+    private static AnimResources sInstance;
+
+    private final Context mContext;
+
+    // Configuration dependent values, reloaded when mValid is false
+    private boolean mValid = false;
+    private final Point mScreenSize = new Point();
+    private float mRefreshRate;
+    private int mCardAddDuration;
+    private int mCardRemoveDuration;
+    private int mShortAnimTime;
+
+    // Interpolators
+    private final Interpolator mInterpolator;
+    private final Interpolator mDecelerateInterpolator = new DecelerateInterpolator();
+
+    /**
+     * Get the shared instance, created on first use
+     * @param context Any context, only its application context is kept
+     * @return The shared instance
+     */
+    public static AnimResources get(Context context) {
+        if (sInstance == null) {
+            sInstance = new AnimResources(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    private AnimResources(Context appContext) {
+        mContext = appContext;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            mInterpolator = AnimationUtils.loadInterpolator(
+                    appContext,
+                    android.R.interpolator.fast_out_slow_in
+            );
+        } else {
+            mInterpolator = mDecelerateInterpolator;
+        }
+        appContext.registerComponentCallbacks(this);
+    }
+
+    /**
+     * @return Height of the screen in pixels, for the current orientation
+     */
+    public int getScreenHeight() {
+        ensureValid();
+        return mScreenSize.y;
+    }
+
+    /**
+     * @return Width of the screen in pixels, for the current orientation
+     */
+    public int getScreenWidth() {
+        ensureValid();
+        return mScreenSize.x;
+    }
+
+    /**
+     * @return Refresh rate of the screen in frames per second
+     */
+    public float getRefreshRate() {
+        ensureValid();
+        return mRefreshRate;
+    }
+
+    /**
+     * @return fast_out_slow_in interpolator on API >= 21, decelerate_interpolator below
+     */
+    public Interpolator getInterpolator() {
+        return mInterpolator;
+    }
+
+    public Interpolator getDecelerateInterpolator() {
+        return mDecelerateInterpolator;
+    }
+
+    public int getCardAddDuration() {
+        ensureValid();
+        return mCardAddDuration;
+    }
+
+    public int getCardRemoveDuration() {
+        ensureValid();
+        return mCardRemoveDuration;
+    }
+
+    /**
+     * @return android.R.integer.config_shortAnimTime
+     */
+    public int getShortAnimTime() {
+        ensureValid();
+        return mShortAnimTime;
+    }
+
+    private void ensureValid() {
+        if (!mValid) {
+            WindowManager wm = (WindowManager) mContext.getSystemService(Context.WINDOW_SERVICE);
+            Display display = wm.getDefaultDisplay();
+            display.getSize(mScreenSize);
+            mRefreshRate = display.getRefreshRate();
+
+            Resources resources = mContext.getResources();
+            mCardAddDuration = resources.getInteger(R.integer.card_add_anim_duration);
+            mCardRemoveDuration = resources.getInteger(R.integer.card_remove_anim_duration);
+            mShortAnimTime = resources.getInteger(android.R.integer.config_shortAnimTime);
+            mValid = true;
+        }
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+        // Orientation, screen size or resource qualifiers may have changed
+        mValid = false;
+    }
+
+    @Override
+    public void onLowMemory() {}
+}
@@ -0,0 +1,213 @@
+package com.shockn745.simpleform;
+
+import android.content.ComponentCallbacks;
+import android.content.Context;
+import android.content.res.Configuration;
+
+import java.text.DateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Dates as primitive epoch days (number of days since 1970-01-01) : no Calendar nor Date is
+ * needed to store, compare or pass them around.
+ *
+ * Conversions are done with integer arithmetic (proleptic Gregorian calendar). The formatters
+ * are cached per locale, and dropped after a configuration change.
+ *
+ * The static methods can be used from any thread, the others only from the main thread.
+ */
+public class DateService implements ComponentCallbacks {
+
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+    // Days in 400 years, and from 0000-03-01 to 1970-01-01
+    private static final int DAYS_PER_ERA = 146097;
+    private static final int EPOCH_SHIFT = 719468;
+    // Not computed yet, no real cutoff is that far in the past
+    private static final int NO_CUTOFF = Integer.MIN_VALUE;
+
+    private static DateService sInstance;
+
+    // Formatters, all in UTC : an epoch day is formatted the same way in every time zone
+    private final HashMap<Locale, DateFormat> mFormatters = new HashMap<>();
+    private final Date mDate = new Date();
+
+    // Cutoffs of the age checks, indexed by age, for the day mCutoffToday
+    private int mCutoffToday = Integer.MIN_VALUE;
+    private int[] mCutoffs = new int[0];
+
+    /**
+     * Get the shared instance, created on first use
+     * @param context Any context, only its application context is kept
+     * @return The shared instance
+     */
+    public static DateService get(Context context) {
+        if (sInstance == null) {
+            sInstance = new DateService();
+            context.getApplicationContext().registerComponentCallbacks(sInstance);
+        }
+        return sInstance;
+    }
+
+    private DateService() {}
+
+    /**
+     * @param year Year, e.g. 1990
+     * @param monthOfYear Month, 0 to 11 as in {@link android.widget.DatePicker}
+     * @param dayOfMonth Day, 1 to 31
+     * @return Epoch day of the date
+     */
+    public static int toEpochDay(int year, int monthOfYear, int dayOfMonth) {
+        int month = monthOfYear + 1;
+        // Years start on March 1st : the leap day is the last day of the year
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + dayOfMonth - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_ERA + dayOfEra - EPOCH_SHIFT;
+    }
+
+    /**
+     * @param epochDay Epoch day
+     * @return Year of the date
+     */
+    public static int getYear(int epochDay) {
+        int z = epochDay + EPOCH_SHIFT;
+        int era = (z >= 0 ? z : z - DAYS_PER_ERA + 1) / DAYS_PER_ERA;
+        int dayOfEra = z - era * DAYS_PER_ERA;
+        int yearOfEra = getYearOfEra(dayOfEra);
+        int monthShifted = getMonthShifted(dayOfEra, yearOfEra);
+        return yearOfEra + era * 400 + (monthShifted >= 10 ? 1 : 0);
+    }
+
+    /**
+     * @param epochDay Epoch day
+     * @return Month of the date, 0 to 11 as in {@link android.widget.DatePicker}
+     */
+    public static int getMonthOfYear(int epochDay) {
+        int z = epochDay + EPOCH_SHIFT;
+        int era = (z >= 0 ? z : z - DAYS_PER_ERA + 1) / DAYS_PER_ERA;
+        int dayOfEra = z - era * DAYS_PER_ERA;
+        int monthShifted = getMonthShifted(dayOfEra, getYearOfEra(dayOfEra));
+        return monthShifted < 10 ? monthShifted + 2 : monthShifted - 10;
+    }
+
+    /**
+     * @param epochDay Epoch day
+     * @return Day of the month, 1 to 31
+     */
+    public static int getDayOfMonth(int epochDay) {
+        int z = epochDay + EPOCH_SHIFT;
+        int era = (z >= 0 ? z : z - DAYS_PER_ERA + 1) / DAYS_PER_ERA;
+        int dayOfEra = z - era * DAYS_PER_ERA;
+        int yearOfEra = getYearOfEra(dayOfEra);
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int monthShifted = (5 * dayOfYear + 2) / 153;
+        return dayOfYear - (153 * monthShifted + 2) / 5 + 1;
+    }
+
+    private static int getYearOfEra(int dayOfEra) {
+        return (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+    }
+
+    /**
+     * @return Month counted from March : 0 for March, 11 for February
+     */
+    private static int getMonthShifted(int dayOfEra, int yearOfEra) {
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        return (5 * dayOfYear + 2) / 153;
+    }
+
+    /**
+     * @return Epoch day of today, in the default time zone
+     */
+    public static int getToday() {
+        long now = System.currentTimeMillis();
+        long local = now + TimeZone.getDefault().getOffset(now);
+        return (int) Math.floor((double) local / MILLIS_PER_DAY);
+    }
+
+    /**
+     * Latest birthday of someone who is at least some years old on a given day.
+     * A cutoff falling on a 29th of February that doesn't exist is moved to the 28th.
+     * @param today Epoch day of the check
+     * @param years Minimum age
+     * @return Epoch day of the cutoff
+     */
+    public static int getAgeCutoff(int today, int years) {
+        int year = getYear(today) - years;
+        int month = getMonthOfYear(today);
+        int day = getDayOfMonth(today);
+        if (month == 1 && day == 29 && !isLeapYear(year)) {
+            day = 28;
+        }
+        return toEpochDay(year, month, day);
+    }
+
+    private static boolean isLeapYear(int year) {
+        return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /**
+     * @param birthday Epoch day of the birthday
+     * @param years Minimum age, no minimum if 0
+     * @return true if the person is at least that old today
+     */
+    public boolean isOldEnough(int birthday, int years) {
+        return years <= 0 || birthday <= getCutoff(years);
+    }
+
+    /**
+     * Latest birthday of someone who is at least some years old today, computed once per day
+     * and per age. Compare birthdays with the result to check many of them at once.
+     * @param years Minimum age
+     * @return Epoch day of the cutoff
+     */
+    public int getCutoff(int years) {
+        int today = getToday();
+        if (today != mCutoffToday) {
+            Arrays.fill(mCutoffs, NO_CUTOFF);
+            mCutoffToday = today;
+        }
+        if (years >= mCutoffs.length) {
+            int oldLength = mCutoffs.length;
+            mCutoffs = Arrays.copyOf(mCutoffs, years + 1);
+            Arrays.fill(mCutoffs, oldLength, mCutoffs.length, NO_CUTOFF);
+        }
+        if (mCutoffs[years] == NO_CUTOFF) {
+            mCutoffs[years] = getAgeCutoff(today, years);
+        }
+        return mCutoffs[years];
+    }
+
+    /**
+     * @param epochDay Epoch day to format
+     * @return The date in the default format of the current locale
+     */
+    public String format(int epochDay) {
+        Locale locale = Locale.getDefault();
+        DateFormat formatter = mFormatters.get(locale);
+        if (formatter == null) {
+            formatter = DateFormat.getDateInstance(DateFormat.DEFAULT, locale);
+            formatter.setTimeZone(TimeZone.getTimeZone("UTC"));
+            mFormatters.put(locale, formatter);
+        }
+        mDate.setTime(epochDay * MILLIS_PER_DAY);
+        return formatter.format(mDate);
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+        // Locale may have changed
+        mFormatters.clear();
+    }
+
+    @Override
+    public void onLowMemory() {
+        mFormatters.clear();
+    }
+}
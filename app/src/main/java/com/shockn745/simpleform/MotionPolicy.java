@@ -0,0 +1,155 @@
+package com.shockn745.simpleform;
+
+import android.annotation.TargetApi;
+import android.app.ActivityManager;
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.ContentObserver;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Handler;
+import android.provider.Settings;
+
+import com.shockn745.simpleform.metrics.FrameStatsListener;
+
+/**
+ * Decides how much motion the animations can afford : full, reduced or none.
+ *
+ * At startup :
+ *  - Animator duration scale set to 0 in the developer options : no animation
+ *  - Low RAM device (API >= 19) : reduced animations
+ * At runtime, this class is a {@link FrameStatsListener} : when the animations drop too many
+ * frames, the level goes down one step (full -> reduced -> none). It never goes back up while
+ * the process lives, to avoid oscillating.
+ *
+ * The animations read the level each time they start, see {@link #getLevel()}.
+ * Must only be used from the main thread.
+ */
+public class MotionPolicy implements FrameStatsListener {
+
+    public enum Level {
+        /** Every animation, at full length */
+        FULL,
+        /** Shorter animations, no stagger */
+        REDUCED,
+        /** No animation at all : views are moved to their final state */
+        NONE
+    }
+
+    // Frames needed before judging the device
+    private static final int MIN_MEASURED_FRAMES = 60;
+    // Level goes down when more frames than this ratio are dropped
+    private static final float MAX_DROPPED_RATIO = 0.25f;
+
+    private static MotionPolicy sInstance;
+
+    private final ContentResolver mContentResolver;
+    private final boolean mLowRamDevice;
+    private float mAnimatorScale;
+    // Steps lost because of the measured frames
+    private int mDowngrades = 0;
+
+    // Frames measured since the last downgrade
+    private int mMeasuredFrames = 0;
+    private int mDroppedFrames = 0;
+
+    /**
+     * Get the shared instance, created on first use
+     * @param context Any context, only its application context is kept
+     * @return The shared instance
+     */
+    public static MotionPolicy get(Context context) {
+        if (sInstance == null) {
+            sInstance = new MotionPolicy(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    private MotionPolicy(Context appContext) {
+        mContentResolver = appContext.getContentResolver();
+        mLowRamDevice = isLowRamDevice(appContext);
+        mAnimatorScale = readAnimatorScale();
+
+        // Follow the changes of the developer option
+        mContentResolver.registerContentObserver(
+                getAnimatorScaleUri(),
+                false,
+                new ContentObserver(new Handler()) {
+                    @Override
+                    public void onChange(boolean selfChange) {
+                        mAnimatorScale = readAnimatorScale();
+                    }
+                }
+        );
+    }
+
+    /**
+     * @return The current level of motion
+     */
+    public Level getLevel() {
+        if (mAnimatorScale == 0) {
+            return Level.NONE;
+        }
+        int level = (mLowRamDevice ? 1 : 0) + mDowngrades;
+        if (level <= 0) {
+            return Level.FULL;
+        } else if (level == 1) {
+            return Level.REDUCED;
+        } else {
+            return Level.NONE;
+        }
+    }
+
+    /**
+     * @return true if the level is {@link Level#FULL}
+     */
+    public boolean isFullMotion() {
+        return getLevel() == Level.FULL;
+    }
+
+    @Override
+    public void onFrameStats(int measuredFrames, int droppedFrames) {
+        mMeasuredFrames += measuredFrames;
+        mDroppedFrames += droppedFrames;
+        if (mMeasuredFrames >= MIN_MEASURED_FRAMES) {
+            if (mDroppedFrames > mMeasuredFrames * MAX_DROPPED_RATIO && mDowngrades < 2) {
+                mDowngrades++;
+            }
+            mMeasuredFrames = 0;
+            mDroppedFrames = 0;
+        }
+    }
+
+    private static boolean isLowRamDevice(Context context) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            return isLowRamDeviceKitKat(context);
+        }
+        return false;
+    }
+
+    @TargetApi(Build.VERSION_CODES.KITKAT)
+    private static boolean isLowRamDeviceKitKat(Context context) {
+        ActivityManager am = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        return am.isLowRamDevice();
+    }
+
+    @SuppressWarnings("deprecation")
+    private float readAnimatorScale() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            return Settings.Global.getFloat(
+                    mContentResolver, Settings.Global.ANIMATOR_DURATION_SCALE, 1f);
+        } else {
+            return Settings.System.getFloat(
+                    mContentResolver, Settings.System.ANIMATOR_DURATION_SCALE, 1f);
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Uri getAnimatorScaleUri() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            return Settings.Global.getUriFor(Settings.Global.ANIMATOR_DURATION_SCALE);
+        } else {
+            return Settings.System.getUriFor(Settings.System.ANIMATOR_DURATION_SCALE);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.shockn745.simpleform.form;
+
+/**
+ * Immutable description of a field of a form
+ *
+ * @author Florian Kempenich
+ */
+public class FieldSpec {
+
+    public enum Type {
+        /** Single line of text, value is a String */
+        TEXT,
+        /** Date picked in a DatePicker, value is an epoch day (Integer) */
+        DATE
+    }
+
+    private final String mKey;
+    private final Type mType;
+    private final String mLabel;
+    private final boolean mRequired;
+    private final int mMinAge;
+
+    /**
+     * @param key Key of the value, used in the result Intent & saved state
+     * @param type Type of the field
+     * @param label Label displayed above the field, also used as hint
+     * @param required true if the field must be filled
+     * @param minAge DATE only : minimum age in years of someone born on the date, 0 for none
+     */
+    public FieldSpec(String key, Type type, String label, boolean required, int minAge) {
+        mKey = key;
+        mType = type;
+        mLabel = label;
+        mRequired = required;
+        mMinAge = minAge;
+    }
+
+    public String getKey() {
+        return mKey;
+    }
+
+    public Type getType() {
+        return mType;
+    }
+
+    public String getLabel() {
+        return mLabel;
+    }
+
+    public boolean isRequired() {
+        return mRequired;
+    }
+
+    public int getMinAge() {
+        return mMinAge;
+    }
+}
@@ -0,0 +1,157 @@
+package com.shockn745.simpleform.form;
+
+import android.support.v7.widget.RecyclerView;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.EditText;
+import android.widget.TextView;
+
+import com.shockn745.simpleform.DateService;
+import com.shockn745.simpleform.R;
+
+/**
+ * Adapter displaying the fields of a {@link FormSchema}.
+ * Only the visible fields are inflated & bound : the values live in the {@link FormState}, the
+ * views are recycled like the cards of the result screen.
+ *
+ * @author Florian Kempenich
+ */
+public class FormAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+    private static final int VIEW_TYPE_TEXT = 0;
+    private static final int VIEW_TYPE_DATE = 1;
+
+    /**
+     * Notified when a DATE field is clicked : the date must be picked by the activity
+     */
+    public interface OnDateFieldClickListener {
+        /**
+         * @param index Index of the field
+         */
+        void onDateFieldClick(int index);
+    }
+
+    /**
+     * TEXT field, writes its text to the state as the user types
+     */
+    public static class TextFieldVH extends RecyclerView.ViewHolder {
+        public final TextView mLabelTextView;
+        public final EditText mEditText;
+        // True while bound : setText must not be written back to the state
+        private boolean mBinding = false;
+
+        public TextFieldVH(View itemView, final FormState state) {
+            super(itemView);
+            mLabelTextView = (TextView) itemView.findViewById(R.id.field_label_text_view);
+            mEditText = (EditText) itemView.findViewById(R.id.field_edit_text);
+            // A single watcher per view, it follows the field the view is bound to
+            mEditText.addTextChangedListener(new TextWatcher() {
+                @Override
+                public void afterTextChanged(Editable s) {
+                    int index = getAdapterPosition();
+                    if (!mBinding && index != RecyclerView.NO_POSITION) {
+                        state.setText(index, s.toString());
+                    }
+                }
+
+                @Override
+                public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+                }
+
+                @Override
+                public void onTextChanged(CharSequence s, int start, int before, int count) {
+                }
+            });
+        }
+    }
+
+    /**
+     * DATE field, opens the date picker of the activity when clicked
+     */
+    public static class DateFieldVH extends RecyclerView.ViewHolder {
+        public final TextView mLabelTextView;
+        public final EditText mDateTextView;
+
+        public DateFieldVH(View itemView, final OnDateFieldClickListener listener) {
+            super(itemView);
+            mLabelTextView = (TextView) itemView.findViewById(R.id.field_label_text_view);
+            mDateTextView = (EditText) itemView.findViewById(R.id.field_edit_text);
+            mDateTextView.setOnClickListener(new View.OnClickListener() {
+                @Override
+                public void onClick(View v) {
+                    int index = getAdapterPosition();
+                    if (index != RecyclerView.NO_POSITION) {
+                        listener.onDateFieldClick(index);
+                    }
+                }
+            });
+        }
+    }
+
+    private final FormState mState;
+    private final DateService mDateService;
+    private final OnDateFieldClickListener mDateFieldClickListener;
+
+    /**
+     * @param state Values of the form, its schema gives the fields
+     * @param dateService Formats the dates
+     * @param dateFieldClickListener Notified when a DATE field is clicked
+     */
+    public FormAdapter(FormState state,
+                       DateService dateService,
+                       OnDateFieldClickListener dateFieldClickListener) {
+        mState = state;
+        mDateService = dateService;
+        mDateFieldClickListener = dateFieldClickListener;
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return mState.getSchema().get(position).getType() == FieldSpec.Type.TEXT
+                ? VIEW_TYPE_TEXT
+                : VIEW_TYPE_DATE;
+    }
+
+    @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        LayoutInflater inflater = LayoutInflater.from(parent.getContext());
+        if (viewType == VIEW_TYPE_TEXT) {
+            return new TextFieldVH(
+                    inflater.inflate(R.layout.form_text_field, parent, false),
+                    mState
+            );
+        } else {
+            return new DateFieldVH(
+                    inflater.inflate(R.layout.form_date_field, parent, false),
+                    mDateFieldClickListener
+            );
+        }
+    }
+
+    @Override
+    public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {
+        FieldSpec spec = mState.getSchema().get(position);
+        if (holder instanceof TextFieldVH) {
+            TextFieldVH textHolder = (TextFieldVH) holder;
+            textHolder.mLabelTextView.setText(spec.getLabel());
+            textHolder.mEditText.setHint(spec.getLabel());
+            textHolder.mBinding = true;
+            textHolder.mEditText.setText(mState.getText(position));
+            textHolder.mBinding = false;
+        } else {
+            DateFieldVH dateHolder = (DateFieldVH) holder;
+            dateHolder.mLabelTextView.setText(spec.getLabel());
+            dateHolder.mDateTextView.setHint(spec.getLabel());
+            Integer date = mState.getDate(position);
+            dateHolder.mDateTextView.setText(date != null ? mDateService.format(date) : null);
+        }
+    }
+
+    @Override
+    public int getItemCount() {
+        return mState.getSchema().size();
+    }
+}
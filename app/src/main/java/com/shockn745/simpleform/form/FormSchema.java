@@ -0,0 +1,47 @@
+package com.shockn745.simpleform.form;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Ordered list of the fields of a form.
+ * The index of a field is its position in the form, its adapter position & its id in the
+ * {@link com.shockn745.simpleform.validation.ValidationEngine}.
+ *
+ * @author Florian Kempenich
+ */
+public class FormSchema {
+
+    private final ArrayList<FieldSpec> mFields;
+    private final HashMap<String, Integer> mIndexByKey = new HashMap<>();
+
+    /**
+     * @param fields Fields of the form, in order. Keys must be unique.
+     */
+    public FormSchema(List<FieldSpec> fields) {
+        mFields = new ArrayList<>(fields);
+        for (int i = 0; i < mFields.size(); i++) {
+            if (mIndexByKey.put(mFields.get(i).getKey(), i) != null) {
+                throw new IllegalArgumentException("Duplicate key : " + mFields.get(i).getKey());
+            }
+        }
+    }
+
+    public int size() {
+        return mFields.size();
+    }
+
+    public FieldSpec get(int index) {
+        return mFields.get(index);
+    }
+
+    /**
+     * @param key Key of a field
+     * @return Index of the field, -1 if not in the form
+     */
+    public int indexOf(String key) {
+        Integer index = mIndexByKey.get(key);
+        return index != null ? index : -1;
+    }
+}
@@ -0,0 +1,163 @@
+package com.shockn745.simpleform.form;
+
+import android.content.Intent;
+import android.os.Bundle;
+
+import com.shockn745.simpleform.DateService;
+import com.shockn745.simpleform.validation.NotEmptyRule;
+import com.shockn745.simpleform.validation.ValidationEngine;
+
+/**
+ * Values of a form, kept off the views : the fields scrolled off-screen keep their values while
+ * their views are recycled.
+ *
+ * Each change is forwarded to a {@link ValidationEngine}, where the rules declared by the
+ * {@link FieldSpec}s are registered.
+ *
+ * @author Florian Kempenich
+ */
+public class FormState {
+
+    private final FormSchema mSchema;
+    private final ValidationEngine mValidationEngine;
+    private final DateService mDateService;
+    // Values, indexed by field : String for TEXT, Integer for DATE, null if not set
+    private final Object[] mValues;
+
+    /**
+     * @param schema Fields of the form
+     * @param validationEngine Engine where the rules of the fields are added
+     * @param dateService Checks the minimum ages of the DATE fields
+     */
+    public FormState(FormSchema schema,
+                     ValidationEngine validationEngine,
+                     DateService dateService) {
+        mSchema = schema;
+        mValidationEngine = validationEngine;
+        mDateService = dateService;
+        mValues = new Object[schema.size()];
+        for (int i = 0; i < schema.size(); i++) {
+            addRules(i, schema.get(i));
+        }
+    }
+
+    private void addRules(final int index, final FieldSpec spec) {
+        if (spec.getType() == FieldSpec.Type.TEXT) {
+            if (spec.isRequired()) {
+                mValidationEngine.addRule(new NotEmptyRule(index), index);
+            }
+            return;
+        }
+        if (spec.isRequired() || spec.getMinAge() > 0) {
+            mValidationEngine.addRule(new ValidationEngine.Rule() {
+                @Override
+                public boolean validate(ValidationEngine.FieldValues values) {
+                    Integer date = (Integer) values.getValue(index);
+                    if (date == null) {
+                        return !spec.isRequired();
+                    }
+                    return isOldEnough(spec, date);
+                }
+            }, index);
+        }
+    }
+
+    /**
+     * @param spec DATE field
+     * @param date Epoch day
+     * @return true if someone born on the date is at least the minimum age of the field
+     */
+    public boolean isOldEnough(FieldSpec spec, int date) {
+        return mDateService.isOldEnough(date, spec.getMinAge());
+    }
+
+    public FormSchema getSchema() {
+        return mSchema;
+    }
+
+    /**
+     * @param index Index of a TEXT field
+     * @return Its text, null if never set
+     */
+    public String getText(int index) {
+        return (String) mValues[index];
+    }
+
+    /**
+     * @param index Index of a TEXT field
+     * @param text New text
+     */
+    public void setText(int index, String text) {
+        mValues[index] = text;
+        mValidationEngine.setValue(index, text);
+    }
+
+    /**
+     * @param index Index of a DATE field
+     * @return Its epoch day, null if not set
+     */
+    public Integer getDate(int index) {
+        return (Integer) mValues[index];
+    }
+
+    /**
+     * @param index Index of a DATE field
+     * @param epochDay New date
+     */
+    public void setDate(int index, int epochDay) {
+        mValues[index] = epochDay;
+        mValidationEngine.setValue(index, epochDay);
+    }
+
+    /**
+     * Put the values set in an Intent, under the keys of the fields.
+     * Texts are trimmed.
+     * @param intent Intent to fill
+     */
+    public void putExtras(Intent intent) {
+        for (int i = 0; i < mValues.length; i++) {
+            String key = mSchema.get(i).getKey();
+            if (mValues[i] instanceof String) {
+                intent.putExtra(key, ((String) mValues[i]).trim());
+            } else if (mValues[i] instanceof Integer) {
+                intent.putExtra(key, (int) (Integer) mValues[i]);
+            }
+        }
+    }
+
+    /**
+     * Save the values, call from Activity.onSaveInstanceState
+     * @param outState Bundle to save into
+     */
+    public void save(Bundle outState) {
+        for (int i = 0; i < mValues.length; i++) {
+            String key = mSchema.get(i).getKey();
+            if (mValues[i] instanceof String) {
+                outState.putString(key, (String) mValues[i]);
+            } else if (mValues[i] instanceof Integer) {
+                outState.putInt(key, (Integer) mValues[i]);
+            }
+        }
+    }
+
+    /**
+     * Restore the values saved by {@link #save(Bundle)}
+     * @param savedState Bundle saved, may be null
+     */
+    public void restore(Bundle savedState) {
+        if (savedState == null) {
+            return;
+        }
+        for (int i = 0; i < mValues.length; i++) {
+            String key = mSchema.get(i).getKey();
+            if (!savedState.containsKey(key)) {
+                continue;
+            }
+            if (mSchema.get(i).getType() == FieldSpec.Type.TEXT) {
+                setText(i, savedState.getString(key));
+            } else {
+                setDate(i, savedState.getInt(key));
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.shockn745.simpleform.form;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary format of the compiled schemas of {@link SchemaLoader}, big endian :
+ * <pre>
+ * header : int magic, int format version, int app version code, long app last update time,
+ *          long content hash, int count
+ * field  : byte type, byte required, short minAge, string key,
+ *          string label resource name (empty if literal), string literal label (empty if resource)
+ * string : int length in bytes, UTF-8 bytes
+ * </pre>
+ * Labels are stored by resource entry name, not id : the ids can change between two builds of
+ * the same version, the names can't without changing the schema.
+ *
+ * Doesn't depend on the Android framework.
+ *
+ * @author Florian Kempenich
+ */
+final class SchemaCodec {
+
+    /** Last update time or content hash unknown : never matches the header */
+    static final long UNKNOWN = -1;
+
+    private static final int MAGIC = 0x53465343; // "SFSC"
+    private static final int FORMAT_VERSION = 3;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final byte TYPE_TEXT = 0;
+    private static final byte TYPE_DATE = 1;
+    // Size of a field without the bytes of its strings
+    private static final int MIN_FIELD_BYTES = 16;
+
+    /**
+     * A field as stored in the binary file : labels are resolved at load, in the current locale
+     */
+    static class CompiledField {
+        String key;
+        FieldSpec.Type type;
+        boolean required;
+        int minAge;
+        String labelName = "";
+        String label = "";
+    }
+
+    private SchemaCodec() {}
+
+    /**
+     * @param out Destination of the encoded schema
+     * @param versionCode Version code of the app
+     * @param lastUpdateTime Last update time of the app, or {@link #UNKNOWN}
+     * @param hash Hash of the JSON resource
+     * @param fields Fields of the schema
+     * @throws IOException If out fails
+     */
+    static void encode(DataOutput out,
+                       int versionCode,
+                       long lastUpdateTime,
+                       long hash,
+                       List<CompiledField> fields) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(versionCode);
+        out.writeLong(lastUpdateTime);
+        out.writeLong(hash);
+        out.writeInt(fields.size());
+        for (CompiledField field : fields) {
+            out.writeByte(field.type == FieldSpec.Type.TEXT ? TYPE_TEXT : TYPE_DATE);
+            out.writeByte(field.required ? 1 : 0);
+            out.writeShort(field.minAge);
+            writeString(out, field.key);
+            writeString(out, field.labelName);
+            writeString(out, field.label);
+        }
+    }
+
+    /**
+     * Decode a schema if it was encoded for the given last update time or content hash
+     * @param buffer Encoded schema
+     * @param versionCode Version code of the app
+     * @param lastUpdateTime Last update time of the app, or {@link #UNKNOWN}
+     * @param hash Hash of the JSON resource, or {@link #UNKNOWN}
+     * @return The fields, or null if encoded by another version or for other content
+     * @throws IOException If the buffer is truncated or corrupt
+     */
+    static ArrayList<CompiledField> decode(ByteBuffer buffer,
+                                           int versionCode,
+                                           long lastUpdateTime,
+                                           long hash) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a compiled schema");
+            }
+            if (buffer.getInt() != FORMAT_VERSION || buffer.getInt() != versionCode) {
+                return null;
+            }
+            long encodedUpdateTime = buffer.getLong();
+            long encodedHash = buffer.getLong();
+            if (!(lastUpdateTime != UNKNOWN && encodedUpdateTime == lastUpdateTime)
+                    && !(hash != UNKNOWN && encodedHash == hash)) {
+                return null;
+            }
+            return decodeFields(buffer);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated compiled schema", e);
+        }
+    }
+
+    private static ArrayList<CompiledField> decodeFields(ByteBuffer buffer) throws IOException {
+        int count = buffer.getInt();
+        // Checked before allocating : a corrupt count must not allocate a huge list
+        if (count < 0 || count > buffer.remaining() / MIN_FIELD_BYTES) {
+            throw new IOException("Invalid field count : " + count);
+        }
+        ArrayList<CompiledField> fields = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            CompiledField field = new CompiledField();
+            byte type = buffer.get();
+            if (type == TYPE_TEXT) {
+                field.type = FieldSpec.Type.TEXT;
+            } else if (type == TYPE_DATE) {
+                field.type = FieldSpec.Type.DATE;
+            } else {
+                throw new IOException("Unknown field type : " + type);
+            }
+            field.required = buffer.get() != 0;
+            field.minAge = buffer.getShort();
+            field.key = readString(buffer);
+            field.labelName = readString(buffer);
+            field.label = readString(buffer);
+            fields.add(field);
+        }
+        return fields;
+    }
+
+    private static String readString(ByteBuffer buffer) throws IOException {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("Invalid string length : " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private static void writeString(DataOutput out, String string) throws IOException {
+        byte[] bytes = string.getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,317 @@
+package com.shockn745.simpleform.form;
+
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.content.res.Resources;
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+import com.shockn745.simpleform.BuildConfig;
+
+import com.shockn745.simpleform.form.SchemaCodec.CompiledField;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.zip.CRC32;
+
+/**
+ * Loads a {@link FormSchema} from a JSON raw resource :
+ * <pre>
+ * { "fields": [
+ *     { "key": "name", "type": "text", "label": "@string/name", "required": true },
+ *     { "key": "birthday", "type": "date", "label": "Birthday", "minAge": 18 }
+ * ] }
+ * </pre>
+ * Labels are either literal or references to string resources.
+ *
+ * The JSON is parsed with a streaming {@link JsonReader}, field by field, and compiled into a
+ * compact binary file in the cache directory. On the next launches, that file is memory-mapped
+ * and decoded directly, without parsing. It is compiled again when the content of the resource
+ * (CRC32 of its bytes) or the version of the app changes.
+ *
+ * The resource can only change with the APK : as long as the app isn't updated (same last update
+ * time), the cache is used without reading the resource. After an update, the resource is read
+ * and hashed, and only parsed if its content has changed.
+ *
+ * The labels are cached by resource name, and their ids looked up at load. A cache file that
+ * can't be decoded, or references a string resource that doesn't exist, is deleted and the
+ * schema is parsed again. See {@link SchemaCodec} for the binary format.
+ *
+ * @author Florian Kempenich
+ */
+public class SchemaLoader {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String STRING_REFERENCE = "@string/";
+    private static final String STRING_TYPE = "string";
+    private static final long UNKNOWN = SchemaCodec.UNKNOWN;
+
+    private SchemaLoader() {}
+
+    /**
+     * Load a schema, from the compiled cache if it is up to date
+     * @param context Context used to read the resources & the cache directory
+     * @param rawResId JSON raw resource of the schema
+     * @return The schema
+     */
+    public static FormSchema load(Context context, int rawResId) {
+        Resources resources = context.getResources();
+        String packageName = context.getPackageName();
+        long lastUpdateTime = getLastUpdateTime(context);
+        File cacheFile = new File(
+                context.getCacheDir(),
+                "form_schema_" + resources.getResourceEntryName(rawResId) + ".bin"
+        );
+
+        // App not updated since the cache was written : the resource is the same
+        ArrayList<CompiledField> fields = readCache(cacheFile, lastUpdateTime, UNKNOWN);
+        if (fields == null) {
+            byte[] json = readRawResource(resources, rawResId);
+            CRC32 crc = new CRC32();
+            crc.update(json, 0, json.length);
+            long hash = crc.getValue();
+
+            fields = readCache(cacheFile, UNKNOWN, hash);
+            if (fields == null) {
+                try {
+                    fields = parse(json, resources, packageName);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Malformed form schema", e);
+                }
+            }
+            // Written again for the new last update time, even if the content hasn't changed
+            writeCache(cacheFile, lastUpdateTime, hash, fields);
+        }
+
+        FormSchema schema = resolveLabels(fields, resources, packageName);
+        if (schema == null) {
+            // A cached label is no longer in the resources : parsed again, the parse checks them
+            cacheFile.delete();
+            return load(context, rawResId);
+        }
+        return schema;
+    }
+
+    /**
+     * @return The schema with its labels in the current locale, or null if a label resource
+     *         doesn't exist
+     */
+    private static FormSchema resolveLabels(ArrayList<CompiledField> fields,
+                                            Resources resources,
+                                            String packageName) {
+        ArrayList<FieldSpec> specs = new ArrayList<>(fields.size());
+        for (CompiledField field : fields) {
+            String label = field.label;
+            if (!field.labelName.isEmpty()) {
+                int labelResId = resources.getIdentifier(field.labelName, STRING_TYPE, packageName);
+                if (labelResId == 0) {
+                    return null;
+                }
+                label = resources.getString(labelResId);
+            }
+            specs.add(new FieldSpec(field.key, field.type, label, field.required, field.minAge));
+        }
+        return new FormSchema(specs);
+    }
+
+    /**
+     * @return Time of the last install or update of the app, {@link #UNKNOWN} if not available
+     */
+    private static long getLastUpdateTime(Context context) {
+        try {
+            return context.getPackageManager()
+                    .getPackageInfo(context.getPackageName(), 0)
+                    .lastUpdateTime;
+        } catch (PackageManager.NameNotFoundException e) {
+            return UNKNOWN;
+        }
+    }
+
+    private static byte[] readRawResource(Resources resources, int rawResId) {
+        InputStream in = resources.openRawResource(rawResId);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable form schema", e);
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    //////////////////////
+    // Streaming parser //
+    //////////////////////
+
+    private static ArrayList<CompiledField> parse(byte[] json,
+                                                  Resources resources,
+                                                  String packageName) throws IOException {
+        ArrayList<CompiledField> fields = new ArrayList<>();
+        JsonReader reader = new JsonReader(
+                new InputStreamReader(new ByteArrayInputStream(json), UTF_8));
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("fields")) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        fields.add(parseField(reader, resources, packageName));
+                    }
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } finally {
+            closeQuietly(reader);
+        }
+        return fields;
+    }
+
+    private static CompiledField parseField(JsonReader reader,
+                                            Resources resources,
+                                            String packageName) throws IOException {
+        CompiledField field = new CompiledField();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "key":
+                    field.key = reader.nextString();
+                    break;
+                case "type":
+                    field.type = parseType(reader.nextString());
+                    break;
+                case "label":
+                    String label = reader.nextString();
+                    if (label.startsWith(STRING_REFERENCE)) {
+                        field.labelName = label.substring(STRING_REFERENCE.length());
+                        if (resources.getIdentifier(field.labelName, STRING_TYPE, packageName)
+                                == 0) {
+                            throw new IOException("Unknown string resource : " + label);
+                        }
+                    } else {
+                        field.label = label;
+                    }
+                    break;
+                case "required":
+                    field.required = reader.nextBoolean();
+                    break;
+                case "minAge":
+                    field.minAge = reader.nextInt();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        if (field.key == null || field.type == null) {
+            throw new IOException("Field without key or type");
+        }
+        return field;
+    }
+
+    private static FieldSpec.Type parseType(String type) throws IOException {
+        switch (type) {
+            case "text":
+                return FieldSpec.Type.TEXT;
+            case "date":
+                return FieldSpec.Type.DATE;
+            default:
+                throw new IOException("Unknown field type : " + type);
+        }
+    }
+
+    //////////////////
+    // Binary cache //
+    //////////////////
+
+    /**
+     * Read the cache if it was written for the given last update time or content hash
+     * @param lastUpdateTime Last update time of the app, or {@link #UNKNOWN}
+     * @param hash Hash of the resource, or {@link #UNKNOWN}
+     * @return The fields of the cache, or null if missing, stale or corrupt.
+     *         A corrupt cache is deleted.
+     */
+    private static ArrayList<CompiledField> readCache(File cacheFile,
+                                                      long lastUpdateTime,
+                                                      long hash) {
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+        RandomAccessFile file = null;
+        try {
+            file = new RandomAccessFile(cacheFile, "r");
+            FileChannel channel = file.getChannel();
+            return SchemaCodec.decode(
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()),
+                    BuildConfig.VERSION_CODE,
+                    lastUpdateTime,
+                    hash
+            );
+        } catch (IOException e) {
+            // Truncated or corrupt : compiled again
+            closeQuietly(file);
+            file = null;
+            cacheFile.delete();
+            return null;
+        } finally {
+            closeQuietly(file);
+        }
+    }
+
+    /**
+     * Write the cache in a temporary file renamed at the end : a cache file is always complete.
+     * A failure only costs a parse on the next launch.
+     */
+    private static void writeCache(File cacheFile,
+                                   long lastUpdateTime,
+                                   long hash,
+                                   ArrayList<CompiledField> fields) {
+        File tmpFile = new File(cacheFile.getPath() + ".tmp");
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new FileOutputStream(tmpFile));
+            SchemaCodec.encode(out, BuildConfig.VERSION_CODE, lastUpdateTime, hash, fields);
+            out.close();
+            out = null;
+            if (!tmpFile.renameTo(cacheFile)) {
+                tmpFile.delete();
+            }
+        } catch (IOException e) {
+            tmpFile.delete();
+        } finally {
+            closeQuietly(out);
+        }
+    }
+
+    private static void closeQuietly(java.io.Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
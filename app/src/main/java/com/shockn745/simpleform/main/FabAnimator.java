@@ -1,15 +1,18 @@
 package com.shockn745.simpleform.main;
 
 import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
 import android.content.Context;
-import android.os.Build;
 import android.support.design.widget.FloatingActionButton;
-import android.view.animation.AnimationUtils;
-import android.view.animation.DecelerateInterpolator;
 import android.view.animation.Interpolator;
 
-import com.shockn745.simpleform.AnimCompatUtils;
+import com.shockn745.simpleform.AnimResources;
+import com.shockn745.simpleform.MotionPolicy;
+import com.shockn745.simpleform.metrics.AnimationMetricsTracker;
+import com.shockn745.simpleform.metrics.FrameStatsListener;
+import com.shockn745.simpleform.metrics.MetricsSink;
 import com.shockn745.simpleform.R;
+import com.shockn745.simpleform.result.recyclerview.animation.ChoreographerFrameClock;
 
 /**
  * Class to handle FAB animations
@@ -17,11 +20,50 @@ import com.shockn745.simpleform.R;
 public class FabAnimator {
 
     private FloatingActionButton mFAB;
-    private Context mContext;
+    private final Interpolator mInterpolator;
+    private final MotionPolicy mMotionPolicy;
 
     private float mTranslationDistance;
     private boolean isHidden = false;
 
+    // Not null when frame metrics are recorded
+    private AnimationMetricsTracker mMetricsTracker;
+    private AnimationMetricsTracker.Session mMetricsSession;
+    private boolean mCancelled = false;
+
+    private final Animator.AnimatorListener mShowListener = new Animator.AnimatorListener() {
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            endMetrics();
+            mFAB.setEnabled(true);
+        }
+
+        @Override
+        public void onAnimationStart(Animator animation) {
+        }
+
+        @Override
+        public void onAnimationCancel(Animator animation) {
+            mCancelled = true;
+        }
+
+        @Override
+        public void onAnimationRepeat(Animator animation) {
+        }
+    };
+
+    private final Animator.AnimatorListener mHideListener = new AnimatorListenerAdapter() {
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            endMetrics();
+        }
+
+        @Override
+        public void onAnimationCancel(Animator animation) {
+            mCancelled = true;
+        }
+    };
+
     private final static int DURATION = 1000;
 
     /**
@@ -30,7 +72,8 @@ public class FabAnimator {
      * @param fab
      */
     public FabAnimator(Context context, FloatingActionButton fab) {
-        mContext = context;
+        mInterpolator = AnimResources.get(context).getInterpolator();
+        mMotionPolicy = MotionPolicy.get(context);
         mFAB = fab;
         float height = context.getResources().getDimension(R.dimen.fab_size);
         float margin = context.getResources().getDimension(R.dimen.fab_margin);
@@ -38,6 +81,22 @@ public class FabAnimator {
         mTranslationDistance = height + margin + extra;
     }
 
+    /**
+     * Record the frames rendered during the show & hide animations
+     * @param frameStatsListener Receives the frames measured, without allocation : may stay
+     *                           enabled in release builds. May be null.
+     * @param sink Receives one metrics per animation, named fab_show & fab_hide. May be null.
+     */
+    public void setMetrics(FrameStatsListener frameStatsListener, MetricsSink sink) {
+        mMetricsTracker = frameStatsListener != null || sink != null
+                ? new AnimationMetricsTracker(
+                        ChoreographerFrameClock.getInstance(),
+                        AnimResources.get(mFAB.getContext()).getRefreshRate(),
+                        frameStatsListener,
+                        sink)
+                : null;
+    }
+
     public void initFAB() {
         if (!isHidden) {
             mFAB.setEnabled(false);
@@ -49,29 +108,19 @@ public class FabAnimator {
     public void showFAB() {
         if (isHidden) {
             isHidden = false;
+            if (mMotionPolicy.getLevel() == MotionPolicy.Level.NONE) {
+                mFAB.animate().cancel();
+                mFAB.setTranslationY(0);
+                mFAB.setEnabled(true);
+                return;
+            }
             mFAB.animate()
                     .translationY(0)
-                    .setInterpolator(AnimCompatUtils.createInterpolator(mContext))
-                    .setDuration(DURATION)
-                    .setListener(new Animator.AnimatorListener() {
-                        @Override
-                        public void onAnimationEnd(Animator animation) {
-                            mFAB.setEnabled(true);
-                        }
-
-                        @Override
-                        public void onAnimationStart(Animator animation) {
-                        }
-
-                        @Override
-                        public void onAnimationCancel(Animator animation) {
-                        }
-
-                        @Override
-                        public void onAnimationRepeat(Animator animation) {
-                        }
-                    })
+                    .setInterpolator(mInterpolator)
+                    .setDuration(getDuration())
+                    .setListener(mShowListener)
                     .start();
+            beginMetrics("fab_show");
         }
     }
 
@@ -79,13 +128,46 @@ public class FabAnimator {
         if (!isHidden) {
             isHidden = true;
             mFAB.setEnabled(false);
+            if (mMotionPolicy.getLevel() == MotionPolicy.Level.NONE) {
+                mFAB.animate().cancel();
+                mFAB.setTranslationY(mTranslationDistance);
+                return;
+            }
 
             mFAB.animate()
                     .translationY(mTranslationDistance)
-                    .setDuration(DURATION)
-                    .setInterpolator(AnimCompatUtils.createInterpolator(mContext))
+                    .setDuration(getDuration())
+                    .setInterpolator(mInterpolator)
+                    .setListener(mHideListener)
                     .start();
+            beginMetrics("fab_hide");
+        }
+    }
+
+    /**
+     * @return Duration of the animations, shortened when the motion is reduced
+     */
+    private long getDuration() {
+        return mMotionPolicy.isFullMotion() ? DURATION : DURATION / 4;
+    }
+
+    /**
+     * Call right after starting an animation : starting it has cancelled the previous one, which
+     * has already been reported by its listener
+     */
+    private void beginMetrics(String name) {
+        endMetrics();
+        if (mMetricsTracker != null) {
+            mMetricsSession = mMetricsTracker.begin(name);
+        }
+    }
+
+    private void endMetrics() {
+        if (mMetricsSession != null) {
+            mMetricsTracker.end(mMetricsSession, mCancelled);
+            mMetricsSession = null;
         }
+        mCancelled = false;
     }
 
 }
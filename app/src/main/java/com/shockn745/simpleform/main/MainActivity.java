@@ -5,53 +5,76 @@ import android.content.Intent;
 import android.os.Bundle;
 import android.support.design.widget.FloatingActionButton;
 import android.support.v7.app.AppCompatActivity;
-import android.text.Editable;
-import android.text.TextWatcher;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
 import android.view.View;
 import android.view.ViewTreeObserver;
 import android.widget.DatePicker;
-import android.widget.EditText;
 import android.widget.Toast;
 
+import com.shockn745.simpleform.BuildConfig;
+import com.shockn745.simpleform.DateService;
+import com.shockn745.simpleform.MotionPolicy;
 import com.shockn745.simpleform.R;
+import com.shockn745.simpleform.form.FieldSpec;
+import com.shockn745.simpleform.form.FormAdapter;
+import com.shockn745.simpleform.form.FormSchema;
+import com.shockn745.simpleform.form.FormState;
+import com.shockn745.simpleform.form.SchemaLoader;
+import com.shockn745.simpleform.metrics.LogcatMetricsSink;
 import com.shockn745.simpleform.result.ResultActivity;
-
-import java.text.DateFormat;
-import java.util.Calendar;
+import com.shockn745.simpleform.result.recyclerview.animation.ChoreographerFrameClock;
+import com.shockn745.simpleform.validation.ValidationEngine;
 
 public class MainActivity extends AppCompatActivity {
 
+    // Keys of the fields of the form, also keys of the extras given to ResultActivity
+    // Must match the keys of res/raw/form_schema.json
     public final static String NAME_KEY = "name";
     public final static String SURNAME_KEY = "surname";
     public final static String BIRTHDAY_KEY = "birthday";
 
-    private EditText mNameEditText;
-    private EditText mSurnameEditText;
-    private EditText mBirthdayTextView;
     private FloatingActionButton mOkButton;
 
-    private Calendar mCalendar;
-    private boolean ageOver18 = false;
+    private DateService mDateService;
 
     private FabAnimator mFabAnimator;
+    private ValidationEngine mValidationEngine;
+    private FormState mFormState;
+    private FormAdapter mFormAdapter;
+    // Index of the DATE field whose date is being picked
+    private int mPickedDateField;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
-        // Init the calendar
-        mCalendar = Calendar.getInstance();
+        // Init the date service
+        mDateService = DateService.get(this);
 
         // Find views by id
-        mNameEditText = (EditText) findViewById(R.id.name_edit_text);
-        mSurnameEditText = (EditText) findViewById(R.id.surname_edit_text);
-        mBirthdayTextView = (EditText) findViewById(R.id.birthday_edit_text);
+        RecyclerView formRecyclerView = (RecyclerView) findViewById(R.id.form_recycler_view);
         mOkButton = (FloatingActionButton) findViewById(R.id.ok_button);
 
-        // Init the editText
-        initEditText(mNameEditText);
-        initEditText(mSurnameEditText);
+        // Init the validation : the FAB is shown when the whole form is valid
+        initValidation();
+
+        // Init the form : only the visible fields are inflated
+        mFormState = new FormState(createSchema(), mValidationEngine, mDateService);
+        mFormState.restore(savedInstanceState);
+        mFormAdapter = new FormAdapter(
+                mFormState,
+                mDateService,
+                new FormAdapter.OnDateFieldClickListener() {
+                    @Override
+                    public void onDateFieldClick(int index) {
+                        showDatePicker(index);
+                    }
+                }
+        );
+        formRecyclerView.setLayoutManager(new LinearLayoutManager(this));
+        formRecyclerView.setAdapter(mFormAdapter);
 
         // Init FAB animator & hide FAB when layout has been done
         // Used deprecated method to support API 15
@@ -62,7 +85,17 @@ public class MainActivity extends AppCompatActivity {
                             public void onGlobalLayout() {
                                 mOkButton.getViewTreeObserver().removeGlobalOnLayoutListener(this);
                                 mFabAnimator = new FabAnimator(MainActivity.this, mOkButton);
+                                // Measured frames may lower the motion level, dumped to
+                                // logcat in debug
+                                mFabAnimator.setMetrics(
+                                        MotionPolicy.get(MainActivity.this),
+                                        BuildConfig.DEBUG ? new LogcatMetricsSink() : null
+                                );
                                 mFabAnimator.initFAB();
+                                // The form may have become valid before the layout
+                                if (mValidationEngine.isValid()) {
+                                    mFabAnimator.showFAB();
+                                }
                             }
                         }
                 );
@@ -71,126 +104,108 @@ public class MainActivity extends AppCompatActivity {
             public void onClick(View v) {
                 //Start result activity
                 Intent startResult = new Intent(MainActivity.this, ResultActivity.class);
-                startResult.putExtra(NAME_KEY, mNameEditText.getText().toString().trim());
-                startResult.putExtra(SURNAME_KEY, mSurnameEditText.getText().toString().trim());
-                startResult.putExtra(BIRTHDAY_KEY, mCalendar.getTimeInMillis());
+                mFormState.putExtras(startResult);
 
                 startActivity(startResult);
             }
         });
-
-
-
-        //////////////////////////////////////////////////
-        // Show DatePicker when click on Birthday Field //
-        //////////////////////////////////////////////////
-
-        // Set the required date for age check
-        final Calendar requiredDate = Calendar.getInstance();
-        requiredDate.add(Calendar.YEAR, -18);
-
-        // Create the listener
-        final DatePickerDialog.OnDateSetListener dateListener =
-                new DatePickerDialog.OnDateSetListener() {
-            @Override
-            public void onDateSet(DatePicker view,
-                                  int year,
-                                  int monthOfYear,
-                                  int dayOfMonth) {
-                // Save the date
-                mCalendar.set(Calendar.YEAR, year);
-                mCalendar.set(Calendar.MONTH, monthOfYear);
-                mCalendar.set(Calendar.DAY_OF_MONTH, dayOfMonth);
-
-                // Update label
-                updateLabel();
-
-                // Check age
-                if (mCalendar.compareTo(requiredDate) <= 0) {
-                    // Age > 18
-                    ageOver18 = true;
-                } else {
-                    // Age < 18
-                    ageOver18 = false;
-                    Toast.makeText(
-                            MainActivity.this,
-                            "You must be 18 or older to continue!",
-                            Toast.LENGTH_LONG
-                    ).show();
-                }
-                activateButtonIfValidInput();
-
-
-            }
-
-        };
-
-        // Show the DatePicker
-        mBirthdayTextView.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
-                new DatePickerDialog(MainActivity.this,
-                        dateListener,
-                        mCalendar.get(Calendar.YEAR),
-                        mCalendar.get(Calendar.MONTH),
-                        mCalendar.get(Calendar.DAY_OF_MONTH)).show();
-            }
-        });
-
-    }
-
-    /**
-     * Update the label on the birthday field.
-     * Used when a date is set.
-     */
-    private void updateLabel(){
-        DateFormat dateFormat = DateFormat.getDateInstance();
-
-        // Check if calendar is set to prevent IllegalArgumentException
-        if (mCalendar.isSet(Calendar.YEAR)
-                && mCalendar.isSet(Calendar.MONTH)
-                && mCalendar.isSet(Calendar.DAY_OF_MONTH)) {
-            mBirthdayTextView.setText(dateFormat.format(mCalendar.getTime()));
-        }
     }
 
     /**
-     * Activate button if data is valid
+     * Fields of the form, declared in res/raw/form_schema.json
      * Data valid :
      *  - Name non empty
      *  - Surname non empty
      *  - Age over 18
+     * @return Schema of the form
      */
-    private void activateButtonIfValidInput() {
-        if (mNameEditText.getText().length() != 0
-                && mSurnameEditText.getText().length() != 0
-                && ageOver18) {
-            mFabAnimator.showFAB();
-        } else {
-            mFabAnimator.hideFAB();
-        }
+    private FormSchema createSchema() {
+        // Compiled once, then read from the binary cache while the JSON is unchanged
+        return SchemaLoader.load(this, R.raw.form_schema);
     }
 
+    /////////////////////////////////////////////////
+    // Show DatePicker when click on a Date Field //
+    /////////////////////////////////////////////////
+
+    private final DatePickerDialog.OnDateSetListener mDateListener =
+            new DatePickerDialog.OnDateSetListener() {
+        @Override
+        public void onDateSet(DatePicker view,
+                              int year,
+                              int monthOfYear,
+                              int dayOfMonth) {
+            // Save the date
+            int date = DateService.toEpochDay(year, monthOfYear, dayOfMonth);
+            mFormState.setDate(mPickedDateField, date);
+
+            // Update label
+            mFormAdapter.notifyItemChanged(mPickedDateField);
+
+            // Check age
+            FieldSpec spec = mFormState.getSchema().get(mPickedDateField);
+            if (!mFormState.isOldEnough(spec, date)) {
+                Toast.makeText(
+                        MainActivity.this,
+                        "You must be " + spec.getMinAge() + " or older to continue!",
+                        Toast.LENGTH_LONG
+                ).show();
+            }
+        }
+
+    };
 
     /**
-     * Init the editText with a listener that activate the button if data is valid
-     * @param editText EditText to init
+     * Show the DatePicker for a DATE field
+     * @param index Index of the field
      */
-    private void initEditText(EditText editText) {
-        editText.addTextChangedListener(new TextWatcher() {
-            @Override
-            public void afterTextChanged(Editable s) {
-                activateButtonIfValidInput();
-            }
+    private void showDatePicker(int index) {
+        mPickedDateField = index;
+        // Start from today until a date is set
+        Integer current = mFormState.getDate(index);
+        int date = current != null ? current : DateService.getToday();
+        new DatePickerDialog(MainActivity.this,
+                mDateListener,
+                DateService.getYear(date),
+                DateService.getMonthOfYear(date),
+                DateService.getDayOfMonth(date)).show();
+    }
 
-            @Override
-            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
-            }
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        // The views of the fields are recycled : the values are saved from the form state
+        mFormState.save(outState);
+    }
 
-            @Override
-            public void onTextChanged(CharSequence s, int start, int before, int count) {
-            }
-        });
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        mValidationEngine.release();
+    }
+
+    /**
+     * Create the validation engine, activate button when every rule is valid.
+     * The rules are declared by the fields of the form.
+     */
+    private void initValidation() {
+        mValidationEngine = new ValidationEngine(
+                ChoreographerFrameClock.getInstance(),
+                new ValidationEngine.Listener() {
+                    @Override
+                    public void onValidityChanged(boolean valid) {
+                        if (mFabAnimator == null) {
+                            // Layout not done yet : the FAB is still hidden
+                            return;
+                        }
+                        if (valid) {
+                            mFabAnimator.showFAB();
+                        } else {
+                            mFabAnimator.hideFAB();
+                        }
+                    }
+                }
+        );
     }
 
 }
@@ -0,0 +1,92 @@
+package com.shockn745.simpleform.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Frame metrics of a single animation.
+ *
+ * The frame-duration histogram counts the frames by the number of frame intervals they took :
+ * bucket 0 = on time (1 interval), bucket 1 = 2 intervals, ..., last bucket = that many
+ * intervals or more. Every interval beyond the first one is a dropped frame.
+ *
+ * @author Florian Kempenich
+ */
+public class AnimationMetrics {
+
+    private final String mName;
+    private final int mFrameCount;
+    private final int[] mHistogram;
+    private final int mDroppedFrames;
+    private final long mDurationNanos;
+    private final boolean mCancelled;
+
+    /**
+     * @param name Kind of animation, e.g. "card_add"
+     * @param frameCount Number of frames rendered during the animation
+     * @param histogram Frame-duration histogram, copied
+     * @param droppedFrames Number of frames dropped during the animation
+     * @param durationNanos Total duration of the animation
+     * @param cancelled true if the animation was cancelled before its end
+     */
+    public AnimationMetrics(String name, int frameCount, int[] histogram, int droppedFrames,
+                            long durationNanos, boolean cancelled) {
+        mName = name;
+        mFrameCount = frameCount;
+        mHistogram = Arrays.copyOf(histogram, histogram.length);
+        mDroppedFrames = droppedFrames;
+        mDurationNanos = durationNanos;
+        mCancelled = cancelled;
+    }
+
+    public String getName() {
+        return mName;
+    }
+
+    public int getFrameCount() {
+        return mFrameCount;
+    }
+
+    /**
+     * @return Frame-duration histogram, see {@link AnimationMetrics}
+     */
+    public int[] getHistogram() {
+        return Arrays.copyOf(mHistogram, mHistogram.length);
+    }
+
+    public int getDroppedFrames() {
+        return mDroppedFrames;
+    }
+
+    public long getDurationNanos() {
+        return mDurationNanos;
+    }
+
+    public boolean isCancelled() {
+        return mCancelled;
+    }
+
+    /**
+     * @return The metrics as a JSON object
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(128);
+        json.append("{\"name\":\"").append(mName)
+                .append("\",\"frames\":").append(mFrameCount)
+                .append(",\"dropped\":").append(mDroppedFrames)
+                .append(",\"durationMs\":").append(mDurationNanos / 1000000L)
+                .append(",\"cancelled\":").append(mCancelled)
+                .append(",\"histogram\":[");
+        for (int i = 0; i < mHistogram.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(mHistogram[i]);
+        }
+        return json.append("]}").toString();
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+}
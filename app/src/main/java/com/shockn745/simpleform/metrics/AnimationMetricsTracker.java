@@ -0,0 +1,181 @@
+package com.shockn745.simpleform.metrics;
+
+import com.shockn745.simpleform.result.recyclerview.animation.FrameClock;
+
+import java.util.ArrayList;
+
+/**
+ * Records the frames rendered while animations run. The frames are reported aggregated over
+ * every animation to a {@link FrameStatsListener}, without allocating, and one
+ * {@link AnimationMetrics} per animation to a {@link MetricsSink}, if any.
+ *
+ * Call {@link #begin(String)} when an animation starts, and {@link #end(Session, boolean)} when
+ * it ends. While at least one animation is tracked, a frame callback measures the interval
+ * between consecutive frames.
+ *
+ * Sessions are pooled. Must only be used from the main thread.
+ *
+ * @author Florian Kempenich
+ */
+public class AnimationMetricsTracker implements FrameClock.FrameCallback {
+
+    // Buckets of the histogram : 1, 2, 3, 4, 5+ frame intervals
+    public static final int HISTOGRAM_BUCKETS = 5;
+
+    /**
+     * A tracked animation
+     */
+    public static class Session {
+        private String mName;
+        private long mStartNanos;
+        private long mLastFrameNanos;
+        private int mFrameCount;
+        private final int[] mHistogram = new int[HISTOGRAM_BUCKETS];
+        private int mDroppedFrames;
+        // Index in mSessions, -1 when not tracked
+        private int mIndex = -1;
+    }
+
+    private final FrameClock mFrameClock;
+    private final FrameStatsListener mFrameStatsListener;
+    private final MetricsSink mSink;
+    private final long mFrameIntervalNanos;
+
+    // Frames measured while at least one animation runs, not reported yet
+    private long mLastFrameNanos = -1;
+    private int mMeasuredFrames = 0;
+    private int mDroppedFrames = 0;
+
+    private final ArrayList<Session> mSessions = new ArrayList<>();
+    private final ArrayList<Session> mPool = new ArrayList<>();
+    private boolean mFrameRequested = false;
+
+    /**
+     * @param frameClock Source of frames
+     * @param refreshRate Refresh rate of the display, in frames per second
+     * @param sink Destination of the metrics
+     */
+    public AnimationMetricsTracker(FrameClock frameClock, float refreshRate, MetricsSink sink) {
+        this(frameClock, refreshRate, null, sink);
+    }
+
+    /**
+     * @param frameClock Source of frames
+     * @param refreshRate Refresh rate of the display, in frames per second
+     * @param frameStatsListener Receives the frames measured over every animation, may be null
+     * @param sink Destination of the metrics of each animation, may be null : no
+     *             {@link AnimationMetrics} is built then
+     */
+    public AnimationMetricsTracker(FrameClock frameClock,
+                                   float refreshRate,
+                                   FrameStatsListener frameStatsListener,
+                                   MetricsSink sink) {
+        mFrameClock = frameClock;
+        mFrameStatsListener = frameStatsListener;
+        mSink = sink;
+        mFrameIntervalNanos = (long) (1000000000L / (refreshRate > 0 ? refreshRate : 60f));
+    }
+
+    /**
+     * Start tracking an animation
+     * @param name Kind of animation, e.g. "card_add"
+     * @return The session to pass to {@link #end(Session, boolean)}
+     */
+    public Session begin(String name) {
+        int size = mPool.size();
+        Session session = size > 0 ? mPool.remove(size - 1) : new Session();
+        session.mName = name;
+        session.mStartNanos = System.nanoTime();
+        session.mLastFrameNanos = -1;
+        session.mFrameCount = 0;
+        session.mDroppedFrames = 0;
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            session.mHistogram[i] = 0;
+        }
+        session.mIndex = mSessions.size();
+        mSessions.add(session);
+
+        if (!mFrameRequested) {
+            mFrameRequested = true;
+            mFrameClock.postFrameCallback(this);
+        }
+        return session;
+    }
+
+    /**
+     * Stop tracking an animation and report its metrics, with the frames measured since the
+     * previous report. Does nothing if already ended.
+     * @param session Session returned by {@link #begin(String)}
+     * @param cancelled true if the animation was cancelled
+     */
+    public void end(Session session, boolean cancelled) {
+        if (session.mIndex < 0) {
+            return;
+        }
+        // Swap with the last one
+        Session last = mSessions.remove(mSessions.size() - 1);
+        if (last != session) {
+            mSessions.set(session.mIndex, last);
+            last.mIndex = session.mIndex;
+        }
+        session.mIndex = -1;
+
+        if (mSink != null) {
+            mSink.onAnimationMetrics(new AnimationMetrics(
+                    session.mName,
+                    session.mFrameCount,
+                    session.mHistogram,
+                    session.mDroppedFrames,
+                    System.nanoTime() - session.mStartNanos,
+                    cancelled
+            ));
+        }
+        session.mName = null;
+        mPool.add(session);
+
+        if (mFrameStatsListener != null && mMeasuredFrames > 0) {
+            mFrameStatsListener.onFrameStats(mMeasuredFrames, mDroppedFrames);
+        }
+        mMeasuredFrames = 0;
+        mDroppedFrames = 0;
+
+        if (mSessions.isEmpty()) {
+            // The time without animation isn't measured
+            mLastFrameNanos = -1;
+            if (mFrameRequested) {
+                mFrameRequested = false;
+                mFrameClock.removeFrameCallback(this);
+            }
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        mFrameRequested = false;
+        // Number of frame intervals this frame took, 0 on the first frame
+        int intervals = 0;
+        if (mLastFrameNanos >= 0) {
+            long delta = frameTimeNanos - mLastFrameNanos;
+            intervals = Math.max(1, Math.round((float) delta / mFrameIntervalNanos));
+            mMeasuredFrames += intervals;
+            mDroppedFrames += intervals - 1;
+        }
+        mLastFrameNanos = frameTimeNanos;
+
+        for (int i = 0; i < mSessions.size(); i++) {
+            Session session = mSessions.get(i);
+            session.mFrameCount++;
+            if (session.mLastFrameNanos >= 0) {
+                // Sessions all see the same frames : only the first one of a session isn't
+                // counted
+                session.mHistogram[Math.min(HISTOGRAM_BUCKETS, intervals) - 1]++;
+                session.mDroppedFrames += intervals - 1;
+            }
+            session.mLastFrameNanos = frameTimeNanos;
+        }
+        if (!mSessions.isEmpty()) {
+            mFrameRequested = true;
+            mFrameClock.postFrameCallback(this);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.shockn745.simpleform.metrics;
+
+/**
+ * Receives the frames measured by an {@link AnimationMetricsTracker}, aggregated over every
+ * animation. Only primitives are passed : cheap enough to stay enabled in release builds.
+ *
+ * @author Florian Kempenich
+ */
+public interface FrameStatsListener {
+
+    /**
+     * Called on the main thread when a tracked animation ends (or is cancelled), with the frames
+     * measured since the previous call
+     * @param measuredFrames Frame intervals elapsed while at least one animation ran
+     * @param droppedFrames Frames dropped among them
+     */
+    void onFrameStats(int measuredFrames, int droppedFrames);
+}
@@ -0,0 +1,57 @@
+package com.shockn745.simpleform.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link MetricsSink} keeping the metrics in memory, to be inspected afterwards.
+ * Has no Android dependency : usable on the JVM.
+ *
+ * @author Florian Kempenich
+ */
+public class InMemoryMetricsSink implements MetricsSink {
+
+    private final ArrayList<AnimationMetrics> mMetrics = new ArrayList<>();
+
+    @Override
+    public void onAnimationMetrics(AnimationMetrics metrics) {
+        mMetrics.add(metrics);
+    }
+
+    /**
+     * @return Every metrics received, in order
+     */
+    public List<AnimationMetrics> getMetrics() {
+        return Collections.unmodifiableList(mMetrics);
+    }
+
+    /**
+     * @param name Kind of animation
+     * @return The metrics received for this kind of animation, in order
+     */
+    public List<AnimationMetrics> getMetrics(String name) {
+        ArrayList<AnimationMetrics> metrics = new ArrayList<>();
+        for (AnimationMetrics m : mMetrics) {
+            if (m.getName().equals(name)) {
+                metrics.add(m);
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * @return Total number of dropped frames over every metrics received
+     */
+    public int getTotalDroppedFrames() {
+        int dropped = 0;
+        for (AnimationMetrics m : mMetrics) {
+            dropped += m.getDroppedFrames();
+        }
+        return dropped;
+    }
+
+    public void clear() {
+        mMetrics.clear();
+    }
+}
@@ -0,0 +1,19 @@
+package com.shockn745.simpleform.metrics;
+
+import android.util.Log;
+
+/**
+ * {@link MetricsSink} dumping every metrics to logcat as JSON.
+ * Meant for debug builds only.
+ *
+ * @author Florian Kempenich
+ */
+public class LogcatMetricsSink implements MetricsSink {
+
+    private static final String LOG_TAG = "AnimationMetrics";
+
+    @Override
+    public void onAnimationMetrics(AnimationMetrics metrics) {
+        Log.d(LOG_TAG, metrics.toJson());
+    }
+}
@@ -0,0 +1,15 @@
+package com.shockn745.simpleform.metrics;
+
+/**
+ * Destination of the metrics recorded by an {@link AnimationMetricsTracker}
+ *
+ * @author Florian Kempenich
+ */
+public interface MetricsSink {
+
+    /**
+     * Called on the main thread each time a tracked animation ends (or is cancelled)
+     * @param metrics Metrics of the animation
+     */
+    void onAnimationMetrics(AnimationMetrics metrics);
+}
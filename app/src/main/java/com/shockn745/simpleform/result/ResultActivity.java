@@ -7,17 +7,21 @@ import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
 import android.widget.TextView;
 
+import com.shockn745.simpleform.BuildConfig;
+import com.shockn745.simpleform.DateService;
+import com.shockn745.simpleform.MotionPolicy;
 import com.shockn745.simpleform.R;
 import com.shockn745.simpleform.main.MainActivity;
+import com.shockn745.simpleform.metrics.LogcatMetricsSink;
 import com.shockn745.simpleform.result.recyclerview.Card;
 import com.shockn745.simpleform.result.recyclerview.CardAdapter;
+import com.shockn745.simpleform.result.recyclerview.CardViewHolderPool;
 import com.shockn745.simpleform.result.recyclerview.animation.CardAnimator;
 import com.shockn745.simpleform.result.recyclerview.animation.CardScheduler;
+import com.shockn745.simpleform.result.recyclerview.animation.ChoreographerFrameClock;
 import com.shockn745.simpleform.result.recyclerview.animation.SwipeDismissRecyclerViewTouchListener;
 
-import java.text.DateFormat;
 import java.util.ArrayList;
-import java.util.Date;
 
 public class ResultActivity extends AppCompatActivity {
 
@@ -25,6 +29,8 @@ public class ResultActivity extends AppCompatActivity {
 
     private CardAdapter mAdapter;
     private RecyclerView mRecyclerView;
+    private CardViewHolderPool mViewHolderPool;
+    private CardScheduler mScheduler;
 
     private String mName;
     private String mSurname;
@@ -45,10 +51,8 @@ public class ResultActivity extends AppCompatActivity {
         mSurname = getIntent().getStringExtra(MainActivity.SURNAME_KEY);
 
         // Retrieve & format birthday
-        long birthdayMs = getIntent().getLongExtra(MainActivity.BIRTHDAY_KEY, 0);
-        Date birthday = new Date(birthdayMs);
-        DateFormat dateFormat = DateFormat.getDateInstance();
-        mBirthday = dateFormat.format(birthday);
+        int birthday = getIntent().getIntExtra(MainActivity.BIRTHDAY_KEY, 0);
+        mBirthday = DateService.get(this).format(birthday);
 
         // Set full name in ActionBar
         ActionBar actionBar = getSupportActionBar();
@@ -63,18 +67,42 @@ public class ResultActivity extends AppCompatActivity {
         Card birthdayCard = new Card(getString(R.string.birthday), mBirthday);
 
         // Schedule cards
-        CardScheduler scheduler = new CardScheduler(
+        mScheduler = new CardScheduler(
                 mAdapter,
                 getResources().getInteger(R.integer.scheduler_add_duration),
                 mRecyclerView
         );
+        // Release the cards on vsync rather than with delayed messages
+        mScheduler.setFrameClock(ChoreographerFrameClock.getInstance());
+        // Only animate the cards that fit on screen
+        mScheduler.setVisibleFirst(true);
 
-        scheduler.addCardToList(nameCard);
-        scheduler.addCardToList(surnameCard);
-        scheduler.addCardToList(birthdayCard);
+        mScheduler.addCardToList(nameCard);
+        mScheduler.addCardToList(surnameCard);
+        mScheduler.addCardToList(birthdayCard);
 
         // Animate cards
-        scheduler.displayPendingCards();
+        mScheduler.displayPendingCards();
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        mScheduler.resume();
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        // Cards are not displayed while the activity is in the background
+        mScheduler.pause();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        mScheduler.cancel();
+        mViewHolderPool.release();
     }
 
 
@@ -83,6 +111,13 @@ public class ResultActivity extends AppCompatActivity {
         mAdapter = new CardAdapter(new ArrayList<Card>());
         mRecyclerView.setAdapter(mAdapter);
 
+        // Inflate the cards while the main thread is idle, before the scheduler adds them
+        mViewHolderPool = new CardViewHolderPool(
+                getResources().getInteger(R.integer.card_pool_size)
+        );
+        mViewHolderPool.prefill(mRecyclerView);
+        mAdapter.setViewHolderPool(mViewHolderPool);
+
         // Notify the recyclerView that its size won't change (better perfs)
         mRecyclerView.setHasFixedSize(true);
 
@@ -93,6 +128,10 @@ public class ResultActivity extends AppCompatActivity {
                         mAdapter,
                         this
                 );
+        // Cards can be swiped one after the other, removed together
+        touchListener.setPipelinedDismiss(true);
+        // Move the swiped card once per frame
+        touchListener.setFrameClock(ChoreographerFrameClock.getInstance());
         mRecyclerView.setOnTouchListener(touchListener);
 
         // Setting this scroll listener is required to ensure that during ListView scrolling,
@@ -100,7 +139,21 @@ public class ResultActivity extends AppCompatActivity {
         mRecyclerView.setOnScrollListener(touchListener.makeScrollListener());
 
         mRecyclerView.setLayoutManager(new LinearLayoutManager(this));
-        mRecyclerView.setItemAnimator(new CardAnimator(this));
+        CardAnimator cardAnimator = new CardAnimator(this);
+        // Drive all the card animations from a single frame callback
+        cardAnimator.setFrameClock(ChoreographerFrameClock.getInstance());
+        // Interruptible animations : touch is never locked while cards animate
+        cardAnimator.setSpringAnimations(true);
+        // Bound the cost of a frame when many cards are added at once
+        cardAnimator.setMaxConcurrentAddAnimations(
+                getResources().getInteger(R.integer.card_max_concurrent_adds)
+        );
+        // Measured frames may lower the motion level, dumped to logcat in debug
+        cardAnimator.setMetrics(
+                MotionPolicy.get(this),
+                BuildConfig.DEBUG ? new LogcatMetricsSink() : null
+        );
+        mRecyclerView.setItemAnimator(cardAnimator);
     }
 
 }
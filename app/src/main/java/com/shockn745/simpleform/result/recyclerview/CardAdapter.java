@@ -1,5 +1,8 @@
 package com.shockn745.simpleform.result.recyclerview;
 
+import android.os.AsyncTask;
+import android.os.Looper;
+import android.os.MessageQueue;
 import android.support.v7.widget.RecyclerView;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -8,8 +11,11 @@ import android.widget.TextView;
 
 import com.shockn745.simpleform.R;
 import com.shockn745.simpleform.result.recyclerview.animation.SwipeDismissRecyclerViewTouchListener;
+import com.shockn745.simpleform.result.recyclerview.paging.PagedCardList;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Adapter for the list of cards
@@ -30,21 +36,96 @@ public class CardAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> i
         }
     }
 
+    // Exactly one of mDataSet, mPagedList & mStore is used
     private final ArrayList<Card> mDataSet;
+    private final PagedCardList mPagedList;
+    private final CompactCardStore mStore;
+
+    // Incremented on every change of the dataset, used to detect stale diffs
+    private int mGeneration = 0;
+    private DiffTask mDiffTask;
+
+    private CardViewHolderPool mViewHolderPool;
+
+    // Lazy dismissal : dismissed cards are tombstoned in mDataSet, and removed when idle
+    private LivePositionIndex mLiveIndex;
+    private boolean mCompactionScheduled = false;
+    private final MessageQueue.IdleHandler mCompactor = new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+            mCompactionScheduled = false;
+            compactTombstones();
+            return false;
+        }
+    };
 
     public CardAdapter(ArrayList<Card> dataSet) {
         // Init the dataset
         mDataSet = dataSet;
+        mPagedList = null;
+        mStore = null;
     }
 
+    /**
+     * Create an adapter binding its cards straight from a {@link CompactCardStore}
+     * @param store Cards to display
+     */
+    public CardAdapter(CompactCardStore store) {
+        mDataSet = null;
+        mPagedList = null;
+        mStore = store;
+    }
+
+    /**
+     * Create an adapter displaying a read-only list loaded page by page.
+     * Cards of pages still loading are displayed as placeholders, and are refreshed as soon as
+     * their page is loaded.
+     * @param pagedList Cards to display
+     */
+    public CardAdapter(PagedCardList pagedList) {
+        mDataSet = null;
+        mPagedList = pagedList;
+        mStore = null;
+        mPagedList.setCallback(new PagedCardList.Callback() {
+            @Override
+            public void onPageLoaded(int start, int count) {
+                notifyItemRangeChanged(start, count);
+            }
+        });
+    }
+
+
+    /**
+     * Set a pool of pre-inflated view holders used before inflating new ones
+     * @param viewHolderPool Pool to use, or null to always inflate
+     */
+    public void setViewHolderPool(CardViewHolderPool viewHolderPool) {
+        mViewHolderPool = viewHolderPool;
+    }
 
     /**
      * Create the viewHolder
+     * Taken from the pool of pre-inflated view holders if possible
      *
      * @return ViewHolder created
      */
     @Override
     public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        if (mViewHolderPool != null) {
+            CardVH pooled = mViewHolderPool.acquire();
+            if (pooled != null) {
+                return pooled;
+            }
+        }
+        return createCardViewHolder(parent);
+    }
+
+    /**
+     * Inflate a new card
+     * @param parent Parent the card will be attached to
+     * @return ViewHolder created
+     */
+    static CardVH createCardViewHolder(ViewGroup parent) {
         View itemView = LayoutInflater
                 .from(parent.getContext())
                 .inflate(R.layout.card, parent, false);
@@ -63,16 +144,35 @@ public class CardAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> i
 
         CardVH cardHolder = (CardVH) holder;
 
-        Card card = mDataSet.get(position);
+        if (mStore != null) {
+            mStore.bind(position, cardHolder.mHeaderTextView, cardHolder.mContentTextView);
+            return;
+        }
+
+        Card card = mPagedList != null
+                ? mPagedList.get(position)
+                : mDataSet.get(toDataIndex(position));
 
-        cardHolder.mHeaderTextView.setText(card.getHeader());
-        cardHolder.mContentTextView.setText(card.getContent());
+        if (card != null) {
+            cardHolder.mHeaderTextView.setText(card.getHeader());
+            cardHolder.mContentTextView.setText(card.getContent());
+        } else {
+            // Placeholder : page still loading
+            cardHolder.mHeaderTextView.setText(null);
+            cardHolder.mContentTextView.setText(R.string.card_loading);
+        }
     }
 
 
     @Override
     public int getItemCount() {
-        return mDataSet.size();
+        if (mStore != null) {
+            return mStore.size();
+        }
+        if (mLiveIndex != null) {
+            return mLiveIndex.liveCount();
+        }
+        return mPagedList != null ? mPagedList.size() : mDataSet.size();
     }
 
 
@@ -88,7 +188,15 @@ public class CardAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> i
      */
     @Override
     public boolean canDismiss(int position) {
-        return mDataSet.get(position).canDismiss();
+        if (mPagedList != null) {
+            // Paged list is read-only
+            return false;
+        }
+        if (mStore != null) {
+            // Same as Card.canDismiss()
+            return true;
+        }
+        return mDataSet.get(toDataIndex(position)).canDismiss();
     }
 
     @Override
@@ -96,6 +204,27 @@ public class CardAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> i
         removeCard(position);
     }
 
+    /**
+     * Remove the dismissed cards, one range removal per run of consecutive positions
+     * @param recyclerView Originating RecyclerView
+     * @param reverseSortedPositions Positions of the cards, in descending order
+     * @param count Number of positions
+     */
+    @Override
+    public void onDismissBatch(RecyclerView recyclerView, int[] reverseSortedPositions, int count) {
+        int i = 0;
+        while (i < count) {
+            // Extend the run while the positions are consecutive
+            int end = i + 1;
+            while (end < count
+                    && reverseSortedPositions[end] == reverseSortedPositions[end - 1] - 1) {
+                end++;
+            }
+            removeRange(reverseSortedPositions[end - 1], end - i);
+            i = end;
+        }
+    }
+
     ///////////////////////////////////
     // Methods to handle the dataset //
     ///////////////////////////////////
@@ -107,14 +236,80 @@ public class CardAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> i
      * @param toAdd Card to add at the end
      */
     public void addCard(Card toAdd) {
+        checkNotPaged();
+
         // Element inserted at the end
         // So size of dataset before insertion == position of inserted element
-        int position = mDataSet.size();
+        int position = getItemCount();
 
-        mDataSet.add(toAdd);
+        if (mStore != null) {
+            mStore.add(toAdd.getHeader(), toAdd.getContent());
+        } else {
+            mDataSet.add(toAdd);
+            if (mLiveIndex != null) {
+                mLiveIndex.append();
+            }
+        }
+        mGeneration++;
         notifyItemInserted(position);
     }
 
+    /**
+     * Method used to add several cards at the end.
+     * Triggers a single range insertion, so a single layout pass.
+     * @param toAdd Cards to add at the end, in order
+     */
+    public void addCards(Collection<Card> toAdd) {
+        checkNotPaged();
+        if (toAdd.isEmpty()) {
+            return;
+        }
+
+        int position = getItemCount();
+
+        if (mStore != null) {
+            for (Card card : toAdd) {
+                mStore.add(card.getHeader(), card.getContent());
+            }
+        } else {
+            mDataSet.addAll(toAdd);
+            if (mLiveIndex != null) {
+                for (int i = 0; i < toAdd.size(); i++) {
+                    mLiveIndex.append();
+                }
+            }
+        }
+        mGeneration++;
+        notifyItemRangeInserted(position, toAdd.size());
+    }
+
+    /**
+     * Method used to remove several consecutive cards.
+     * Triggers a single range removal, so a single layout pass.
+     * @param positionStart Position of the first card to remove
+     * @param itemCount Number of cards to remove
+     */
+    public void removeRange(int positionStart, int itemCount) {
+        checkNotPaged();
+        if (itemCount == 0) {
+            return;
+        }
+
+        if (mStore != null) {
+            mStore.removeRange(positionStart, itemCount);
+        } else if (mLiveIndex != null) {
+            // Once tombstoned, the next live card takes the position
+            for (int i = 0; i < itemCount; i++) {
+                mLiveIndex.kill(mLiveIndex.indexOf(positionStart));
+            }
+            scheduleCompaction();
+        } else {
+            mDataSet.subList(positionStart, positionStart + itemCount).clear();
+        }
+        mGeneration++;
+        notifyItemRangeRemoved(positionStart, itemCount);
+    }
+
     /**
      * Method used to remove a card.
      * Handle the deletion from the dataset and the adapter
@@ -122,10 +317,156 @@ public class CardAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> i
      * @param position Position of the card to remove
      */
     private void removeCard(int position) {
-        mDataSet.remove(position);
+        if (mStore != null) {
+            mStore.remove(position);
+        } else if (mLiveIndex != null) {
+            mLiveIndex.kill(mLiveIndex.indexOf(position));
+            scheduleCompaction();
+        } else {
+            mDataSet.remove(position);
+        }
+        mGeneration++;
 
         // Notify Adapter to refresh (also starts the animation)
         notifyItemRemoved(position);
     }
 
+    /**
+     * Replace the whole dataset.
+     * The update script is computed on a background thread, then applied in one go on the main
+     * thread so that only the cards that actually changed are animated.
+     * If the dataset is modified while the script is computed, it is computed again.
+     * Calling this method again before the end of the computation discards the previous list.
+     * @param newCards Cards to display
+     */
+    public void submitList(List<Card> newCards) {
+        checkNotPaged();
+        if (mDiffTask != null) {
+            mDiffTask.cancel(false);
+        }
+        compactTombstones();
+        List<Card> oldCards = mStore != null ? mStore.toCards() : new ArrayList<Card>(mDataSet);
+        mDiffTask = new DiffTask(oldCards, new ArrayList<>(newCards), mGeneration);
+        mDiffTask.executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+    }
+
+    /**
+     * Enable or disable lazy dismissal.
+     * When enabled, dismissed cards are only marked as removed (O(log n)) instead of being
+     * removed from the dataset (O(n) for an ArrayList), and positions are resolved through an
+     * index of the remaining cards. The dataset is compacted when the main thread is idle.
+     * Only available for adapters backed by an {@link ArrayList}.
+     * @param enabled true to enable
+     */
+    public void setLazyDismissal(boolean enabled) {
+        if (mDataSet == null) {
+            throw new UnsupportedOperationException(
+                    "Lazy dismissal requires an ArrayList-backed adapter");
+        }
+        if (enabled && mLiveIndex == null) {
+            mLiveIndex = new LivePositionIndex(mDataSet.size());
+        } else if (!enabled && mLiveIndex != null) {
+            compactTombstones();
+            mLiveIndex = null;
+        }
+    }
+
+    /**
+     * Resolve an adapter position
+     * @param position Adapter position
+     * @return Index of the card in mDataSet
+     */
+    private int toDataIndex(int position) {
+        return mLiveIndex != null ? mLiveIndex.indexOf(position) : position;
+    }
+
+    private void scheduleCompaction() {
+        if (!mCompactionScheduled) {
+            mCompactionScheduled = true;
+            Looper.myQueue().addIdleHandler(mCompactor);
+        }
+    }
+
+    /**
+     * Remove the tombstoned cards from mDataSet.
+     * Adapter positions don't change, so nothing needs to be notified.
+     */
+    private void compactTombstones() {
+        if (mLiveIndex == null || mLiveIndex.deadCount() == 0) {
+            return;
+        }
+        int size = mDataSet.size();
+        int live = 0;
+        for (int i = 0; i < size; i++) {
+            if (!mLiveIndex.isDead(i)) {
+                mDataSet.set(live++, mDataSet.get(i));
+            }
+        }
+        mDataSet.subList(live, size).clear();
+        mLiveIndex.compacted();
+    }
+
+    private void checkNotPaged() {
+        if (mPagedList != null) {
+            throw new UnsupportedOperationException("Paged list is read-only");
+        }
+    }
+
+    /**
+     * Apply a script computed by a {@link DiffTask}
+     * @param task Task that computed the script
+     * @param script Script to dispatch
+     */
+    private void applyDiff(DiffTask task, CardDiff.Script script) {
+        if (task != mDiffTask) {
+            return;
+        }
+        mDiffTask = null;
+        if (task.mStartGeneration != mGeneration) {
+            // Dataset modified during the computation : start again from the current state
+            submitList(task.mNewCards);
+            return;
+        }
+        if (mStore != null) {
+            mStore.clear();
+            for (Card card : task.mNewCards) {
+                mStore.add(card.getHeader(), card.getContent());
+            }
+        } else {
+            compactTombstones();
+            mDataSet.clear();
+            mDataSet.addAll(task.mNewCards);
+            if (mLiveIndex != null) {
+                mLiveIndex.reset(mDataSet.size());
+            }
+        }
+        mGeneration++;
+        script.dispatchTo(this);
+    }
+
+    /**
+     * Computes the update script off the main thread
+     */
+    private class DiffTask extends AsyncTask<Void, Void, CardDiff.Script> {
+        private final List<Card> mOldCards;
+        private final List<Card> mNewCards;
+        private final int mStartGeneration;
+
+        private DiffTask(List<Card> oldCards, List<Card> newCards, int startGeneration) {
+            mOldCards = oldCards;
+            mNewCards = newCards;
+            mStartGeneration = startGeneration;
+        }
+
+        @Override
+        protected CardDiff.Script doInBackground(Void... params) {
+            return CardDiff.compute(mOldCards, mNewCards);
+        }
+
+        @Override
+        protected void onPostExecute(CardDiff.Script script) {
+            applyDiff(this, script);
+        }
+    }
+
 }
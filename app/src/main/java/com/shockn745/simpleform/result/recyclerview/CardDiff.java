@@ -0,0 +1,351 @@
+package com.shockn745.simpleform.result.recyclerview;
+
+import android.support.v7.widget.RecyclerView;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Computes the update script that turns one list of cards into another.
+ *
+ * Cards are matched on their header (the n-th card with a given header in the old list matches
+ * the n-th card with the same header in the new list). The longest run of matched cards that
+ * keep their relative order stays in place, every other matched card is moved, and unmatched
+ * cards are removed or inserted. Matched cards whose content differs are reported as changed.
+ *
+ * {@link #compute(List, List)} only works on the lists it is given : it is safe to call from a
+ * background thread. The resulting {@link Script} must then be dispatched on the main thread,
+ * right after the dataset of the adapter has been replaced.
+ *
+ * @author Florian Kempenich
+ */
+public class CardDiff {
+
+    private static final int OP_REMOVE = 0;
+    private static final int OP_INSERT = 1;
+    private static final int OP_MOVE = 2;
+    private static final int OP_CHANGE = 3;
+
+    /**
+     * Ordered list of operations, each one stored as (type, position, extra)
+     * extra is the item count for removals & insertions, the destination for moves
+     */
+    public static class Script {
+        private int[] mOps = new int[3 * 16];
+        private int mSize = 0;
+
+        private void add(int type, int position, int extra) {
+            // Coalesce consecutive insertions & removals into ranges
+            if (mSize > 0) {
+                int last = mSize - 3;
+                int lastType = mOps[last];
+                int lastPosition = mOps[last + 1];
+                int lastCount = mOps[last + 2];
+                if (type == OP_INSERT && lastType == OP_INSERT
+                        && position == lastPosition + lastCount) {
+                    mOps[last + 2] += extra;
+                    return;
+                }
+                if (type == OP_REMOVE && lastType == OP_REMOVE && position + extra == lastPosition) {
+                    mOps[last + 1] = position;
+                    mOps[last + 2] += extra;
+                    return;
+                }
+            }
+            if (mSize + 3 > mOps.length) {
+                mOps = Arrays.copyOf(mOps, mOps.length * 2);
+            }
+            mOps[mSize++] = type;
+            mOps[mSize++] = position;
+            mOps[mSize++] = extra;
+        }
+
+        /**
+         * @return true if both lists were identical
+         */
+        public boolean isEmpty() {
+            return mSize == 0;
+        }
+
+        /**
+         * Notify the adapter of every operation, in order.
+         * Must be called on the main thread, once the dataset holds the new list.
+         * @param adapter Adapter to notify
+         */
+        public void dispatchTo(final RecyclerView.Adapter adapter) {
+            dispatchTo(new UpdateCallback() {
+                @Override
+                public void onRemoved(int position, int count) {
+                    adapter.notifyItemRangeRemoved(position, count);
+                }
+
+                @Override
+                public void onInserted(int position, int count) {
+                    adapter.notifyItemRangeInserted(position, count);
+                }
+
+                @Override
+                public void onMoved(int fromPosition, int toPosition) {
+                    adapter.notifyItemMoved(fromPosition, toPosition);
+                }
+
+                @Override
+                public void onChanged(int position) {
+                    adapter.notifyItemChanged(position);
+                }
+            });
+        }
+
+        /**
+         * Give every operation to a callback, in order
+         * @param callback Callback to notify
+         */
+        public void dispatchTo(UpdateCallback callback) {
+            for (int i = 0; i < mSize; i += 3) {
+                int position = mOps[i + 1];
+                int extra = mOps[i + 2];
+                switch (mOps[i]) {
+                    case OP_REMOVE:
+                        callback.onRemoved(position, extra);
+                        break;
+                    case OP_INSERT:
+                        callback.onInserted(position, extra);
+                        break;
+                    case OP_MOVE:
+                        callback.onMoved(position, extra);
+                        break;
+                    case OP_CHANGE:
+                        callback.onChanged(position);
+                        break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Receives the operations of a {@link Script}, with the semantics of the notify methods of
+     * RecyclerView.Adapter
+     */
+    public interface UpdateCallback {
+        void onRemoved(int position, int count);
+
+        void onInserted(int position, int count);
+
+        void onMoved(int fromPosition, int toPosition);
+
+        void onChanged(int position);
+    }
+
+    private CardDiff() {
+    }
+
+    /**
+     * Compute the script transforming oldCards into newCards
+     * @param oldCards Cards currently displayed
+     * @param newCards Cards to display
+     * @return The script to dispatch to the adapter
+     */
+    public static Script compute(List<Card> oldCards, List<Card> newCards) {
+        int oldSize = oldCards.size();
+        int newSize = newCards.size();
+
+        // Match old & new cards by header : newToOld[j] == -1 means inserted
+        int[] newToOld = new int[newSize];
+        int[] oldToNew = new int[oldSize];
+        Arrays.fill(oldToNew, -1);
+        HashMap<String, ArrayDeque<Integer>> oldByHeader = new HashMap<>();
+        for (int i = 0; i < oldSize; i++) {
+            String header = oldCards.get(i).getHeader();
+            ArrayDeque<Integer> indexes = oldByHeader.get(header);
+            if (indexes == null) {
+                indexes = new ArrayDeque<>();
+                oldByHeader.put(header, indexes);
+            }
+            indexes.add(i);
+        }
+        for (int j = 0; j < newSize; j++) {
+            ArrayDeque<Integer> indexes = oldByHeader.get(newCards.get(j).getHeader());
+            if (indexes == null || indexes.isEmpty()) {
+                newToOld[j] = -1;
+            } else {
+                newToOld[j] = indexes.poll();
+                oldToNew[newToOld[j]] = j;
+            }
+        }
+
+        // Cards that stay in place : longest increasing run of old indexes in new order
+        boolean[] stays = longestIncreasingSubsequence(newToOld);
+
+        Script script = new Script();
+
+        // First, remove stuff (from the end so positions stay valid)
+        // Then, position of each remaining card in the old order
+        int[] compacted = new int[oldSize];
+        int matchedCount = 0;
+        for (int i = 0; i < oldSize; i++) {
+            compacted[i] = matchedCount;
+            if (oldToNew[i] != -1) {
+                matchedCount++;
+            }
+        }
+        for (int i = oldSize - 1; i >= 0; i--) {
+            if (oldToNew[i] == -1) {
+                script.add(OP_REMOVE, i, 1);
+            }
+        }
+
+        // Next, move every matched card that is not part of the stable run right after
+        // the closest preceding card already in place
+        moveCards(script, newToOld, compacted, matchedCount, stays);
+
+        // Next, insert stuff : every existing card is now in the right relative order
+        for (int j = 0; j < newSize; j++) {
+            if (newToOld[j] == -1) {
+                script.add(OP_INSERT, j, 1);
+            }
+        }
+
+        // Finally, change stuff, using the final positions
+        for (int j = 0; j < newSize; j++) {
+            int oldIndex = newToOld[j];
+            if (oldIndex != -1 && !sameContent(oldCards.get(oldIndex), newCards.get(j))) {
+                script.add(OP_CHANGE, j, 0);
+            }
+        }
+
+        return script;
+    }
+
+    /**
+     * Emit the moves, in new order.
+     *
+     * The card moved for new index j goes right after the closest preceding matched card, which
+     * was placed before it : the moved cards form chains, each one hanging after a card that
+     * stays (or at the front of the list). Every slot a card can occupy is thus known in
+     * advance, and the current position of a card is the number of occupied slots before its
+     * own : a Fenwick tree gives it in O(log n), instead of searching a list mirroring the
+     * adapter.
+     *
+     * @param script Script to fill
+     * @param newToOld Old index of each new card, -1 if inserted
+     * @param compacted Position of each old card once the removed ones are gone
+     * @param matchedCount Number of matched cards
+     * @param stays For each new card, whether it stays in place
+     */
+    private static void moveCards(Script script,
+                                  int[] newToOld,
+                                  int[] compacted,
+                                  int matchedCount,
+                                  boolean[] stays) {
+        int newSize = newToOld.length;
+
+        // Length of the chain after each card that stays, index 0 is the front of the list
+        int[] chainLength = new int[matchedCount + 1];
+        // For each moved card : the root of its chain & its rank in the chain
+        int[] chainRoot = new int[newSize];
+        int[] chainRank = new int[newSize];
+        int root = -1;
+        for (int j = 0; j < newSize; j++) {
+            if (newToOld[j] == -1) {
+                continue;
+            }
+            if (stays[j]) {
+                root = compacted[newToOld[j]];
+            } else {
+                chainRoot[j] = root;
+                chainRank[j] = ++chainLength[root + 1];
+            }
+        }
+
+        // Slots : the chain of the front, then each card followed by its chain
+        int[] firstSlot = new int[matchedCount + 1];
+        int slotCount = chainLength[0];
+        for (int p = 0; p < matchedCount; p++) {
+            firstSlot[p + 1] = slotCount;
+            slotCount += 1 + chainLength[p + 1];
+        }
+        int[] tree = new int[slotCount + 1];
+        for (int p = 0; p < matchedCount; p++) {
+            fenwickAdd(tree, firstSlot[p + 1], 1);
+        }
+
+        for (int j = 0; j < newSize; j++) {
+            if (newToOld[j] == -1 || stays[j]) {
+                continue;
+            }
+            int fromSlot = firstSlot[compacted[newToOld[j]] + 1];
+            int from = fenwickCount(tree, fromSlot);
+            fenwickAdd(tree, fromSlot, -1);
+            int toSlot = chainRoot[j] == -1
+                    ? chainRank[j] - 1
+                    : firstSlot[chainRoot[j] + 1] + chainRank[j];
+            int to = fenwickCount(tree, toSlot);
+            fenwickAdd(tree, toSlot, 1);
+            if (from != to) {
+                script.add(OP_MOVE, from, to);
+            }
+        }
+    }
+
+    private static void fenwickAdd(int[] tree, int slot, int delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * @return Number of occupied slots before slot
+     */
+    private static int fenwickCount(int[] tree, int slot) {
+        int count = 0;
+        for (int i = slot; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    private static boolean sameContent(Card oldCard, Card newCard) {
+        String oldContent = oldCard.getContent();
+        String newContent = newCard.getContent();
+        return oldContent == null ? newContent == null : oldContent.equals(newContent);
+    }
+
+    /**
+     * Patience sorting, O(n log n)
+     * @param values Old indexes in new order, -1 entries are ignored
+     * @return For each entry, whether it belongs to the longest increasing subsequence
+     */
+    private static boolean[] longestIncreasingSubsequence(int[] values) {
+        int n = values.length;
+        int[] tails = new int[n];
+        int[] previous = new int[n];
+        int length = 0;
+        for (int i = 0; i < n; i++) {
+            if (values[i] == -1) {
+                continue;
+            }
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[tails[mid]] < values[i]) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == length) {
+                length++;
+            }
+        }
+        boolean[] result = new boolean[n];
+        for (int i = length > 0 ? tails[length - 1] : -1; i != -1; i = previous[i]) {
+            result[i] = true;
+        }
+        return result;
+    }
+}
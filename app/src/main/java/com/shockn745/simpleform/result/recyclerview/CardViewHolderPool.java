@@ -0,0 +1,90 @@
+package com.shockn745.simpleform.result.recyclerview;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.view.ViewGroup;
+
+import java.util.ArrayDeque;
+
+/**
+ * Pool of {@link CardAdapter.CardVH} inflated ahead of time.
+ *
+ * Inflating R.layout.card is expensive, and {@link CardAdapter#onCreateViewHolder} is called
+ * right when cards are added & animated. This pool inflates the view holders one at a time when
+ * the main thread is idle (views can't safely be inflated on another thread), hands them out
+ * to {@link CardAdapter#onCreateViewHolder}, and refills itself on the next idle moments.
+ *
+ * Must only be used from the main thread.
+ *
+ * @author Florian Kempenich
+ */
+public class CardViewHolderPool implements MessageQueue.IdleHandler {
+
+    private final ArrayDeque<CardAdapter.CardVH> mPool = new ArrayDeque<>();
+    private final int mSize;
+
+    private ViewGroup mParent;
+    private boolean mIdleHandlerRegistered = false;
+
+    /**
+     * Create a new pool
+     * @param size Number of view holders to keep ready
+     */
+    public CardViewHolderPool(int size) {
+        mSize = size;
+    }
+
+    /**
+     * Start filling the pool when the main thread is idle
+     * @param parent Parent the view holders will be attached to (the RecyclerView)
+     */
+    public void prefill(ViewGroup parent) {
+        mParent = parent;
+        scheduleRefill();
+    }
+
+    /**
+     * Take a view holder from the pool
+     * @return A pre-inflated view holder, or null if the pool is empty
+     */
+    public CardAdapter.CardVH acquire() {
+        CardAdapter.CardVH holder = mPool.poll();
+        scheduleRefill();
+        return holder;
+    }
+
+    /**
+     * Stop refilling and drop the view holders not handed out yet.
+     * Call when the activity is destroyed.
+     */
+    public void release() {
+        if (mIdleHandlerRegistered) {
+            Looper.myQueue().removeIdleHandler(this);
+            mIdleHandlerRegistered = false;
+        }
+        mPool.clear();
+        mParent = null;
+    }
+
+    private void scheduleRefill() {
+        if (!mIdleHandlerRegistered && mParent != null && mPool.size() < mSize) {
+            Looper.myQueue().addIdleHandler(this);
+            mIdleHandlerRegistered = true;
+        }
+    }
+
+    /**
+     * Inflate one view holder per idle moment, to keep each idle slice short
+     * @return true while the pool is not full, to be called again on the next idle moment
+     */
+    @Override
+    public boolean queueIdle() {
+        if (mParent == null) {
+            mIdleHandlerRegistered = false;
+            return false;
+        }
+        mPool.add(CardAdapter.createCardViewHolder(mParent));
+        mIdleHandlerRegistered = mPool.size() < mSize;
+        return mIdleHandlerRegistered;
+    }
+}
@@ -0,0 +1,207 @@
+package com.shockn745.simpleform.result.recyclerview;
+
+import android.widget.TextView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Compact alternative to an {@link ArrayList} of {@link Card} for large lists.
+ *
+ * Headers are interned in a small table and referenced by index, and the contents of every card
+ * are packed one after the other in a single char buffer, referenced by offset & length.
+ * A card then costs 3 ints instead of a {@link Card} and two {@link String}s.
+ *
+ * Content is bound with {@link TextView#setText(char[], int, int)}, which keeps a reference to
+ * the buffer : a region of the buffer is therefore never overwritten once written. Growing or
+ * compacting the buffer always allocates a new one.
+ *
+ * @author Florian Kempenich
+ */
+public class CompactCardStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Header table
+    private final ArrayList<String> mHeaders = new ArrayList<>();
+    private final HashMap<String, Integer> mHeaderIndexes = new HashMap<>();
+
+    // Per card data
+    private int[] mHeaderIndex = new int[INITIAL_CAPACITY];
+    private int[] mContentOffset = new int[INITIAL_CAPACITY];
+    private int[] mContentLength = new int[INITIAL_CAPACITY];
+    private int mSize = 0;
+
+    // Shared content buffer
+    private char[] mContent = new char[INITIAL_CAPACITY * 16];
+    private int mContentEnd = 0;
+    // Number of chars in the buffer belonging to removed cards
+    private int mContentGarbage = 0;
+
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * Add a card at the end
+     * @param header Header of the card
+     * @param content Content of the card
+     */
+    public void add(String header, String content) {
+        if (mSize == mHeaderIndex.length) {
+            int capacity = mSize * 2;
+            mHeaderIndex = Arrays.copyOf(mHeaderIndex, capacity);
+            mContentOffset = Arrays.copyOf(mContentOffset, capacity);
+            mContentLength = Arrays.copyOf(mContentLength, capacity);
+        }
+
+        int length = content == null ? 0 : content.length();
+        if (mContentEnd + length > mContent.length) {
+            mContent = Arrays.copyOf(mContent, Math.max(mContent.length * 2, mContentEnd + length));
+        }
+        if (length > 0) {
+            content.getChars(0, length, mContent, mContentEnd);
+        }
+
+        mHeaderIndex[mSize] = internHeader(header);
+        mContentOffset[mSize] = mContentEnd;
+        mContentLength[mSize] = length;
+        mContentEnd += length;
+        mSize++;
+    }
+
+    /**
+     * Remove a card.
+     * The buffer is compacted when more than half of it belongs to removed cards.
+     * @param position Position of the card to remove
+     */
+    public void remove(int position) {
+        removeRange(position, 1);
+    }
+
+    /**
+     * Remove a range of cards
+     * The buffer is compacted when more than half of it belongs to removed cards.
+     * @param positionStart Position of the first card to remove
+     * @param itemCount Number of cards to remove
+     */
+    public void removeRange(int positionStart, int itemCount) {
+        if (itemCount == 0) {
+            return;
+        }
+        checkPosition(positionStart);
+        checkPosition(positionStart + itemCount - 1);
+        for (int i = positionStart; i < positionStart + itemCount; i++) {
+            mContentGarbage += mContentLength[i];
+        }
+        int tail = mSize - positionStart - itemCount;
+        int from = positionStart + itemCount;
+        System.arraycopy(mHeaderIndex, from, mHeaderIndex, positionStart, tail);
+        System.arraycopy(mContentOffset, from, mContentOffset, positionStart, tail);
+        System.arraycopy(mContentLength, from, mContentLength, positionStart, tail);
+        mSize -= itemCount;
+
+        if (mContentGarbage > mContentEnd / 2) {
+            compact();
+        }
+    }
+
+    /**
+     * Remove every card. Headers stay interned.
+     */
+    public void clear() {
+        mSize = 0;
+        mContent = new char[mContent.length];
+        mContentEnd = 0;
+        mContentGarbage = 0;
+    }
+
+    public String getHeader(int position) {
+        checkPosition(position);
+        return mHeaders.get(mHeaderIndex[position]);
+    }
+
+    /**
+     * Materialize the content of a card. Prefer {@link #bind(int, TextView, TextView)}.
+     * @param position Position of the card
+     * @return Content of the card
+     */
+    public String getContent(int position) {
+        checkPosition(position);
+        return new String(mContent, mContentOffset[position], mContentLength[position]);
+    }
+
+    /**
+     * Display a card without materializing any object
+     * @param position Position of the card
+     * @param headerTextView TextView of the header
+     * @param contentTextView TextView of the content
+     */
+    public void bind(int position, TextView headerTextView, TextView contentTextView) {
+        checkPosition(position);
+        headerTextView.setText(mHeaders.get(mHeaderIndex[position]));
+        contentTextView.setText(mContent, mContentOffset[position], mContentLength[position]);
+    }
+
+    /**
+     * @return Every card, materialized as {@link Card} objects
+     */
+    public List<Card> toCards() {
+        ArrayList<Card> cards = new ArrayList<>(mSize);
+        for (int i = 0; i < mSize; i++) {
+            cards.add(new Card(getHeader(i), getContent(i)));
+        }
+        return cards;
+    }
+
+    private int internHeader(String header) {
+        Integer index = mHeaderIndexes.get(header);
+        if (index == null) {
+            index = mHeaders.size();
+            mHeaders.add(header);
+            mHeaderIndexes.put(header, index);
+        }
+        return index;
+    }
+
+    /**
+     * Copy the content of the remaining cards in a new buffer
+     */
+    private void compact() {
+        char[] content = new char[Math.max(INITIAL_CAPACITY, (mContentEnd - mContentGarbage) * 2)];
+        int end = 0;
+        for (int i = 0; i < mSize; i++) {
+            int length = mContentLength[i];
+            System.arraycopy(mContent, mContentOffset[i], content, end, length);
+            mContentOffset[i] = end;
+            end += length;
+        }
+        mContent = content;
+        mContentEnd = end;
+        mContentGarbage = 0;
+    }
+
+    ////////////////////////////////////
+    // Size of the storage, for tests //
+    ////////////////////////////////////
+
+    int getHeaderCount() {
+        return mHeaders.size();
+    }
+
+    int getCardCapacity() {
+        return mHeaderIndex.length;
+    }
+
+    int getContentCapacity() {
+        return mContent.length;
+    }
+
+    private void checkPosition(int position) {
+        if (position < 0 || position >= mSize) {
+            throw new IndexOutOfBoundsException("Invalid position " + position + ", size is " + mSize);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.shockn745.simpleform.result.recyclerview;
+
+import java.util.Arrays;
+
+/**
+ * Maps adapter positions to indexes in a dataset where removed entries are only marked as
+ * dead (tombstoned) instead of being removed right away.
+ *
+ * Backed by a Fenwick tree counting the live entries : marking an entry as dead, appending an
+ * entry and finding the index of the n-th live entry are all O(log n).
+ *
+ * @author Florian Kempenich
+ */
+class LivePositionIndex {
+
+    // Fenwick tree, 1-based : mTree[i] = number of live entries in (i - lowbit(i), i]
+    private int[] mTree;
+    private boolean[] mDead;
+    private int mSize;
+    private int mLiveCount;
+
+    LivePositionIndex(int size) {
+        reset(size);
+    }
+
+    /**
+     * Reset the index to size live entries, O(n)
+     * @param size Number of entries
+     */
+    void reset(int size) {
+        int capacity = Math.max(16, Integer.highestOneBit(Math.max(1, size)) << 1);
+        mDead = new boolean[capacity];
+        mSize = size;
+        mLiveCount = size;
+        build(capacity);
+    }
+
+    /**
+     * Build the tree from mDead & mSize, O(n)
+     * @param capacity Capacity of the tree, power of 2
+     */
+    private void build(int capacity) {
+        mTree = new int[capacity + 1];
+        for (int i = 1; i <= capacity; i++) {
+            if (i <= mSize && !mDead[i - 1]) {
+                mTree[i] += 1;
+            }
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                mTree[parent] += mTree[i];
+            }
+        }
+    }
+
+    /**
+     * @return Number of live entries, i.e. number of adapter positions
+     */
+    int liveCount() {
+        return mLiveCount;
+    }
+
+    /**
+     * @return Number of dead entries waiting for compaction
+     */
+    int deadCount() {
+        return mSize - mLiveCount;
+    }
+
+    /**
+     * Append a live entry at the end of the dataset
+     */
+    void append() {
+        if (mSize == mDead.length) {
+            int capacity = mDead.length * 2;
+            mDead = Arrays.copyOf(mDead, capacity);
+            build(capacity);
+        }
+        mSize++;
+        mLiveCount++;
+        for (int i = mSize; i < mTree.length; i += i & -i) {
+            mTree[i]++;
+        }
+    }
+
+    /**
+     * Mark an entry as dead
+     * @param index Index of the entry in the dataset
+     */
+    void kill(int index) {
+        if (mDead[index]) {
+            return;
+        }
+        mDead[index] = true;
+        mLiveCount--;
+        for (int i = index + 1; i < mTree.length; i += i & -i) {
+            mTree[i]--;
+        }
+    }
+
+    boolean isDead(int index) {
+        return mDead[index];
+    }
+
+    /**
+     * Find the dataset index of the live entry at a given adapter position
+     * @param position Adapter position
+     * @return Index in the dataset
+     */
+    int indexOf(int position) {
+        if (position < 0 || position >= mLiveCount) {
+            throw new IndexOutOfBoundsException(
+                    "Invalid position " + position + ", size is " + mLiveCount);
+        }
+        // Binary lifting : find the largest prefix holding exactly position live entries
+        int index = 0;
+        int remaining = position + 1;
+        for (int step = Integer.highestOneBit(mTree.length - 1); step > 0; step >>= 1) {
+            int next = index + step;
+            if (next < mTree.length && mTree[next] < remaining) {
+                index = next;
+                remaining -= mTree[next];
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Drop the dead entries, to be called once the dataset has been compacted the same way.
+     * All entries are live afterwards.
+     */
+    void compacted() {
+        reset(mLiveCount);
+    }
+}
@@ -0,0 +1,394 @@
+package com.shockn745.simpleform.result.recyclerview.animation;
+
+import android.support.v4.view.ViewCompat;
+import android.support.v4.view.ViewPropertyAnimatorListener;
+import android.view.View;
+import android.view.animation.Interpolator;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+/**
+ * Animates the translation & alpha of many views from a single frame callback.
+ *
+ * Where every {@link android.support.v4.view.ViewPropertyAnimatorCompat} has its own timing
+ * pulse, all the animations started here are advanced together : one {@link FrameClock}
+ * callback per frame writes the properties of every animated view in one pass, then dispatches
+ * the listeners.
+ *
+ * Listeners follow the {@link ViewPropertyAnimatorListener} contract : onAnimationStart on the
+ * first frame, onAnimationEnd at the end, and onAnimationCancel followed by onAnimationEnd
+ * when cancelled. A view has at most one animation : starting a new one cancels the previous.
+ *
+ * Views can also be animated with springs ({@link #animateSpring}) : no duration, the view
+ * settles on its target with a velocity, so a spring can be retargeted mid-flight without a
+ * discontinuity in speed.
+ *
+ * Animation records are pooled : no allocation once running.
+ * Must only be used from the main thread.
+ *
+ * @author Florian Kempenich
+ */
+public class BatchedViewAnimator implements FrameClock.FrameCallback {
+
+    private static final long NANOS_PER_MS = 1000000L;
+    private static final float NANOS_PER_S = 1000000000f;
+
+    // Springs are integrated in steps of at most 4ms, a frame is counted as at most 50ms
+    private static final float MAX_SPRING_STEP = 0.004f;
+    private static final float MAX_SPRING_FRAME = 0.05f;
+    // Springs settle when both the distance to the target and the velocity are below these
+    private static final float TRANSLATION_THRESHOLD = 0.5f;
+    private static final float TRANSLATION_VELOCITY_THRESHOLD = 5f;
+    private static final float ALPHA_THRESHOLD = 1f / 256;
+    private static final float ALPHA_VELOCITY_THRESHOLD = 0.01f;
+
+    /**
+     * Animation of a single view. NaN properties are not animated.
+     */
+    private static class Entry {
+        View view;
+        float fromTranslationX, toTranslationX;
+        float fromTranslationY, toTranslationY;
+        float fromAlpha, toAlpha;
+        long durationNanos;
+        // -1 until the first frame
+        long startTimeNanos;
+        Interpolator interpolator;
+        ViewPropertyAnimatorListener listener;
+        // False once ended or cancelled
+        boolean active;
+        boolean cancelled;
+
+        // Spring only : current values & velocities (per second)
+        boolean spring;
+        long lastFrameTimeNanos;
+        float translationX, translationY, alpha;
+        float velocityX, velocityY, velocityAlpha;
+    }
+
+    private final FrameClock mFrameClock;
+
+    // Springs : stiffness (1/s^2) & damping coefficient (1/s)
+    private float mStiffness;
+    private float mDamping;
+
+    private final ArrayList<Entry> mEntries = new ArrayList<>();
+    private final IdentityHashMap<View, Entry> mEntriesByView = new IdentityHashMap<>();
+    private final ArrayList<Entry> mPool = new ArrayList<>();
+    private boolean mFrameRequested = false;
+
+    // Listeners are dispatched after the pass : entries are not recycled before the end of it
+    private final ArrayList<Entry> mStarted = new ArrayList<>();
+    private final ArrayList<Entry> mEnded = new ArrayList<>();
+    private final ArrayList<Entry> mToRecycle = new ArrayList<>();
+
+    public BatchedViewAnimator(FrameClock frameClock) {
+        mFrameClock = frameClock;
+        setSpring(500f, 1f);
+    }
+
+    /**
+     * Set the parameters of the springs started afterwards
+     * @param stiffness Stiffness, higher is faster
+     * @param dampingRatio 1 for a critically damped spring (no overshoot), lower bounces
+     */
+    public void setSpring(float stiffness, float dampingRatio) {
+        mStiffness = stiffness;
+        mDamping = 2f * dampingRatio * (float) Math.sqrt(stiffness);
+    }
+
+    /**
+     * Start animating a view from its current properties
+     * @param view View to animate
+     * @param translationX Final translationX, or NaN to leave it unchanged
+     * @param translationY Final translationY, or NaN to leave it unchanged
+     * @param alpha Final alpha, or NaN to leave it unchanged
+     * @param duration Duration in ms
+     * @param interpolator Interpolator, or null for accelerate_decelerate
+     * @param listener Listener, may be null
+     */
+    public void animate(View view, float translationX, float translationY, float alpha,
+                        long duration, Interpolator interpolator,
+                        ViewPropertyAnimatorListener listener) {
+        cancel(view);
+
+        Entry entry = startEntry(view, translationX, translationY, alpha, listener);
+        entry.durationNanos = duration * NANOS_PER_MS;
+        entry.interpolator = interpolator;
+    }
+
+    /**
+     * Start moving a view to a target with a spring, from its current properties.
+     * If the view is already driven by a spring, it is retargeted : the previous animation is
+     * cancelled but its velocity is kept.
+     * @param view View to animate
+     * @param translationX Target translationX, or NaN to leave it unchanged
+     * @param translationY Target translationY, or NaN to leave it unchanged
+     * @param alpha Target alpha, or NaN to leave it unchanged
+     * @param velocityX Initial velocity of translationX in px/s, when not retargeted
+     * @param velocityY Initial velocity of translationY in px/s, when not retargeted
+     * @param listener Listener, may be null
+     */
+    public void animateSpring(View view, float translationX, float translationY, float alpha,
+                              float velocityX, float velocityY,
+                              ViewPropertyAnimatorListener listener) {
+        Entry previous = mEntriesByView.get(view);
+        float velocityAlpha = 0;
+        if (previous != null && previous.spring) {
+            velocityX = previous.velocityX;
+            velocityY = previous.velocityY;
+            velocityAlpha = previous.velocityAlpha;
+        }
+        cancel(view);
+
+        Entry entry = startEntry(view, translationX, translationY, alpha, listener);
+        entry.spring = true;
+        entry.translationX = entry.fromTranslationX;
+        entry.translationY = entry.fromTranslationY;
+        entry.alpha = entry.fromAlpha;
+        entry.velocityX = velocityX;
+        entry.velocityY = velocityY;
+        entry.velocityAlpha = velocityAlpha;
+    }
+
+    /**
+     * @param view View
+     * @return Velocity of the translationX of the view in px/s, 0 if not driven by a spring
+     */
+    public float getVelocityX(View view) {
+        Entry entry = mEntriesByView.get(view);
+        return entry != null && entry.spring ? entry.velocityX : 0;
+    }
+
+    /**
+     * @param view View
+     * @return Velocity of the translationY of the view in px/s, 0 if not driven by a spring
+     */
+    public float getVelocityY(View view) {
+        Entry entry = mEntriesByView.get(view);
+        return entry != null && entry.spring ? entry.velocityY : 0;
+    }
+
+    private Entry startEntry(View view, float translationX, float translationY, float alpha,
+                             ViewPropertyAnimatorListener listener) {
+        int size = mPool.size();
+        Entry entry = size > 0 ? mPool.remove(size - 1) : new Entry();
+        entry.view = view;
+        entry.fromTranslationX = ViewCompat.getTranslationX(view);
+        entry.toTranslationX = translationX;
+        entry.fromTranslationY = ViewCompat.getTranslationY(view);
+        entry.toTranslationY = translationY;
+        entry.fromAlpha = ViewCompat.getAlpha(view);
+        entry.toAlpha = alpha;
+        entry.durationNanos = 0;
+        entry.startTimeNanos = -1;
+        entry.interpolator = null;
+        entry.listener = listener;
+        entry.active = true;
+        entry.cancelled = false;
+        entry.spring = false;
+
+        mEntries.add(entry);
+        mEntriesByView.put(view, entry);
+        if (!mFrameRequested) {
+            mFrameRequested = true;
+            mFrameClock.postFrameCallback(this);
+        }
+        return entry;
+    }
+
+    /**
+     * Cancel the animation of a view, leaving its properties where they are
+     * @param view Animated view
+     */
+    public void cancel(View view) {
+        Entry entry = mEntriesByView.remove(view);
+        if (entry == null) {
+            return;
+        }
+        // Removal from mEntries is deferred to the next pass
+        entry.active = false;
+        entry.cancelled = true;
+        if (entry.listener != null) {
+            entry.listener.onAnimationCancel(view);
+            entry.listener.onAnimationEnd(view);
+        }
+    }
+
+    /**
+     * @param view View
+     * @return true if the view is being animated
+     */
+    public boolean isAnimating(View view) {
+        return mEntriesByView.containsKey(view);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        mFrameRequested = false;
+
+        // Write the properties of every view, dropping the ended & cancelled entries
+        int kept = 0;
+        for (int i = 0; i < mEntries.size(); i++) {
+            Entry entry = mEntries.get(i);
+            if (!entry.active) {
+                mToRecycle.add(entry);
+                continue;
+            }
+            if (entry.startTimeNanos < 0) {
+                entry.startTimeNanos = frameTimeNanos;
+                entry.lastFrameTimeNanos = frameTimeNanos;
+                mStarted.add(entry);
+            }
+            boolean ended;
+            if (entry.spring) {
+                ended = stepSpring(entry, frameTimeNanos);
+            } else {
+                long elapsed = frameTimeNanos - entry.startTimeNanos;
+                float fraction = entry.durationNanos > 0
+                        ? Math.min(1f, (float) elapsed / entry.durationNanos)
+                        : 1f;
+                apply(entry, fraction);
+                ended = fraction >= 1f;
+            }
+            if (ended) {
+                entry.active = false;
+                mEntriesByView.remove(entry.view);
+                mEnded.add(entry);
+            } else {
+                mEntries.set(kept++, entry);
+            }
+        }
+        for (int i = mEntries.size() - 1; i >= kept; i--) {
+            mEntries.remove(i);
+        }
+
+        // Listeners may start or cancel animations
+        for (int i = 0; i < mStarted.size(); i++) {
+            Entry entry = mStarted.get(i);
+            if (!entry.cancelled && entry.listener != null) {
+                entry.listener.onAnimationStart(entry.view);
+            }
+        }
+        mStarted.clear();
+        for (int i = 0; i < mEnded.size(); i++) {
+            Entry entry = mEnded.get(i);
+            if (entry.listener != null) {
+                entry.listener.onAnimationEnd(entry.view);
+            }
+            mToRecycle.add(entry);
+        }
+        mEnded.clear();
+
+        for (int i = 0; i < mToRecycle.size(); i++) {
+            Entry entry = mToRecycle.get(i);
+            entry.view = null;
+            entry.interpolator = null;
+            entry.listener = null;
+            mPool.add(entry);
+        }
+        mToRecycle.clear();
+
+        if (!mEntries.isEmpty() && !mFrameRequested) {
+            mFrameRequested = true;
+            mFrameClock.postFrameCallback(this);
+        }
+    }
+
+    private static void apply(Entry entry, float fraction) {
+        float value;
+        if (entry.interpolator != null) {
+            value = entry.interpolator.getInterpolation(fraction);
+        } else {
+            // accelerate_decelerate, like ViewPropertyAnimator
+            value = (float) (Math.cos((fraction + 1) * Math.PI) / 2.0f) + 0.5f;
+        }
+        View view = entry.view;
+        if (!Float.isNaN(entry.toTranslationX)) {
+            ViewCompat.setTranslationX(view,
+                    lerp(entry.fromTranslationX, entry.toTranslationX, value));
+        }
+        if (!Float.isNaN(entry.toTranslationY)) {
+            ViewCompat.setTranslationY(view,
+                    lerp(entry.fromTranslationY, entry.toTranslationY, value));
+        }
+        if (!Float.isNaN(entry.toAlpha)) {
+            ViewCompat.setAlpha(view, lerp(entry.fromAlpha, entry.toAlpha, value));
+        }
+    }
+
+    /**
+     * Advance a spring to the frame time and write the properties
+     * @return true if the spring has settled on its target
+     */
+    private boolean stepSpring(Entry entry, long frameTimeNanos) {
+        float elapsed = Math.min(MAX_SPRING_FRAME,
+                (frameTimeNanos - entry.lastFrameTimeNanos) / NANOS_PER_S);
+        entry.lastFrameTimeNanos = frameTimeNanos;
+
+        // Semi-implicit Euler, stable with small steps
+        while (elapsed > 0) {
+            float dt = Math.min(MAX_SPRING_STEP, elapsed);
+            elapsed -= dt;
+            if (!Float.isNaN(entry.toTranslationX)) {
+                entry.velocityX += (mStiffness * (entry.toTranslationX - entry.translationX)
+                        - mDamping * entry.velocityX) * dt;
+                entry.translationX += entry.velocityX * dt;
+            }
+            if (!Float.isNaN(entry.toTranslationY)) {
+                entry.velocityY += (mStiffness * (entry.toTranslationY - entry.translationY)
+                        - mDamping * entry.velocityY) * dt;
+                entry.translationY += entry.velocityY * dt;
+            }
+            if (!Float.isNaN(entry.toAlpha)) {
+                entry.velocityAlpha += (mStiffness * (entry.toAlpha - entry.alpha)
+                        - mDamping * entry.velocityAlpha) * dt;
+                entry.alpha += entry.velocityAlpha * dt;
+            }
+        }
+
+        boolean settled = true;
+        View view = entry.view;
+        if (!Float.isNaN(entry.toTranslationX)) {
+            if (isSettled(entry.translationX, entry.toTranslationX, entry.velocityX,
+                    TRANSLATION_THRESHOLD, TRANSLATION_VELOCITY_THRESHOLD)) {
+                entry.translationX = entry.toTranslationX;
+                entry.velocityX = 0;
+            } else {
+                settled = false;
+            }
+            ViewCompat.setTranslationX(view, entry.translationX);
+        }
+        if (!Float.isNaN(entry.toTranslationY)) {
+            if (isSettled(entry.translationY, entry.toTranslationY, entry.velocityY,
+                    TRANSLATION_THRESHOLD, TRANSLATION_VELOCITY_THRESHOLD)) {
+                entry.translationY = entry.toTranslationY;
+                entry.velocityY = 0;
+            } else {
+                settled = false;
+            }
+            ViewCompat.setTranslationY(view, entry.translationY);
+        }
+        if (!Float.isNaN(entry.toAlpha)) {
+            if (isSettled(entry.alpha, entry.toAlpha, entry.velocityAlpha,
+                    ALPHA_THRESHOLD, ALPHA_VELOCITY_THRESHOLD)) {
+                entry.alpha = entry.toAlpha;
+                entry.velocityAlpha = 0;
+            } else {
+                settled = false;
+            }
+            ViewCompat.setAlpha(view, Math.max(0f, Math.min(1f, entry.alpha)));
+        }
+        return settled;
+    }
+
+    private static boolean isSettled(float value, float target, float velocity,
+                                     float threshold, float velocityThreshold) {
+        return Math.abs(value - target) < threshold && Math.abs(velocity) < velocityThreshold;
+    }
+
+    private static float lerp(float from, float to, float fraction) {
+        return from + (to - from) * fraction;
+    }
+}
@@ -16,20 +16,23 @@
 package com.shockn745.simpleform.result.recyclerview.animation;
 
 import android.content.Context;
-import android.graphics.Point;
 import android.support.v4.view.ViewCompat;
 import android.support.v4.view.ViewPropertyAnimatorCompat;
 import android.support.v4.view.ViewPropertyAnimatorListener;
 import android.support.v7.widget.RecyclerView;
 import android.support.v7.widget.RecyclerView.ViewHolder;
-import android.view.Display;
 import android.view.View;
-import android.view.WindowManager;
+import android.view.animation.Interpolator;
 
-import com.shockn745.simpleform.AnimCompatUtils;
-import com.shockn745.simpleform.R;
+import com.shockn745.simpleform.AnimResources;
+import com.shockn745.simpleform.MotionPolicy;
+import com.shockn745.simpleform.metrics.AnimationMetrics;
+import com.shockn745.simpleform.metrics.AnimationMetricsTracker;
+import com.shockn745.simpleform.metrics.FrameStatsListener;
+import com.shockn745.simpleform.metrics.MetricsSink;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
 
 /**
@@ -37,6 +40,17 @@ import java.util.List;
  * add animation
  * Commented methods are either added or modified
  *
+ * Steady state is allocation-free : the info records, the batches (which are their own
+ * Runnable) and the animation listeners are recycled in pools.
+ *
+ * Every animated holder has an entry in an identity index : ending the animation of a holder
+ * and {@link #isRunning()} are O(1). Ended entries are not removed from the pending lists and
+ * batches, only marked (holder set to null), and skipped when the list or batch is processed.
+ *
+ * Views are animated either with {@link ViewPropertyAnimatorCompat} or, after
+ * {@link #setFrameClock(FrameClock)}, all together by a {@link BatchedViewAnimator}, optionally
+ * with springs ({@link #setSpringAnimations(boolean)}).
+ *
  * @see RecyclerView.ItemAnimator
  *
  * @author Florian Kempenich
@@ -55,56 +69,164 @@ public class CardAnimator extends RecyclerView.ItemAnimator {
     private final ArrayList<MoveInfo> mPendingMoves = new ArrayList<>();
     private final ArrayList<ChangeInfo> mPendingChanges = new ArrayList<>();
 
-    private final ArrayList<ArrayList<AddInfo>> mAdditionsList =
-            new ArrayList<>();
-    private final ArrayList<ArrayList<MoveInfo>> mMovesList = new ArrayList<>();
-    private final ArrayList<ArrayList<ChangeInfo>> mChangesList = new ArrayList<>();
+    private final ArrayList<AddBatch> mAdditionsList = new ArrayList<>();
+    private final ArrayList<MoveBatch> mMovesList = new ArrayList<>();
+    private final ArrayList<ChangeBatch> mChangesList = new ArrayList<>();
 
-    private final ArrayList<ViewHolder> mAddAnimations = new ArrayList<>();
-    private final ArrayList<ViewHolder> mMoveAnimations = new ArrayList<>();
-    private final ArrayList<ViewHolder> mRemoveAnimations = new ArrayList<>();
-    private final ArrayList<ViewHolder> mChangeAnimations = new ArrayList<>();
+    // What each holder is waiting for or running, so that ending it doesn't scan the lists
+    private static final int TYPE_NONE = 0;
+    private static final int TYPE_REMOVE = 1;
+    private static final int TYPE_ADD = 2;
+    private static final int TYPE_MOVE = 3;
+    private static final int TYPE_CHANGE = 4;
+
+    // Reduced motion : cards are added from 1/8th of the screen below their position
+    private static final int REDUCED_ADD_OFFSET_DIVIDER = 8;
+
+    private static class HolderState {
+        // TYPE_* of the pending (or batched) animation
+        int pending = TYPE_NONE;
+        // MoveInfo, AddInfo or ChangeInfo of the pending animation, null for a removal
+        Object info;
+        // True once moved from a pending list to a batch
+        boolean batched;
+        boolean running;
+    }
+
+    private final IdentityHashMap<ViewHolder, HolderState> mHolderStates =
+            new IdentityHashMap<>();
+    private final ArrayList<HolderState> mHolderStatePool = new ArrayList<>();
+    // Live entries of the pending lists, by TYPE_*
+    private final int[] mPendingCounts = new int[5];
+    // Live holders in the batches
+    private int mBatchedCount = 0;
+    // Holders with a running view animation
+    private int mRunningCount = 0;
+    private final ArrayList<ViewHolder> mRunningHolders = new ArrayList<>();
+
+    // Pools of recycled objects
+    private final ArrayList<MoveInfo> mMoveInfoPool = new ArrayList<>();
+    private final ArrayList<ChangeInfo> mChangeInfoPool = new ArrayList<>();
+    private final ArrayList<AddInfo> mAddInfoPool = new ArrayList<>();
+    private final ArrayList<MoveBatch> mMoveBatchPool = new ArrayList<>();
+    private final ArrayList<ChangeBatch> mChangeBatchPool = new ArrayList<>();
+    private final ArrayList<AddBatch> mAddBatchPool = new ArrayList<>();
+    private final ArrayList<RemoveListener> mRemoveListenerPool = new ArrayList<>();
+    private final ArrayList<AddListener> mAddListenerPool = new ArrayList<>();
+    private final ArrayList<MoveListener> mMoveListenerPool = new ArrayList<>();
+    private final ArrayList<ChangeListener> mChangeListenerPool = new ArrayList<>();
 
     private final Context mContext;
+    private final AnimResources mAnimResources;
+    private final MotionPolicy mMotionPolicy;
+
+    // Not null when the animations are driven by a single frame callback
+    private FrameClock mFrameClock;
+    private BatchedViewAnimator mBatchedAnimator;
+    // True when the batched animations are springs
+    private boolean mSpringAnimations = false;
+
+    // Not null when frame metrics are recorded
+    private AnimationMetricsTracker mMetricsTracker;
+
+    // Add animations pending, batched or running
+    private int mAddAnimationCount = 0;
+    // Cap of mAddAnimationCount, 0 when unbounded
+    private int mMaxConcurrentAdds = 0;
 
     public CardAnimator(Context mContext) {
         this.mContext = mContext;
-        setAddDuration(mContext.getResources().getInteger(R.integer.card_add_anim_duration));
-        setRemoveDuration(mContext.getResources().getInteger(R.integer.card_remove_anim_duration));
+        mAnimResources = AnimResources.get(mContext);
+        mMotionPolicy = MotionPolicy.get(mContext);
+        setAddDuration(mAnimResources.getCardAddDuration());
+        setRemoveDuration(mAnimResources.getCardRemoveDuration());
     }
 
-    private static class MoveInfo {
-        public final ViewHolder holder;
-        public final int fromX;
-        public final int fromY;
-        public final int toX;
-        public final int toY;
+    /**
+     * Drive every card animation from a single frame callback instead of one
+     * {@link ViewPropertyAnimatorCompat} per view.
+     * Call before any animation starts.
+     * @param frameClock Source of frames (usually {@link ChoreographerFrameClock#getInstance()}),
+     *                   or null to use {@link ViewPropertyAnimatorCompat}
+     */
+    public void setFrameClock(FrameClock frameClock) {
+        mFrameClock = frameClock;
+        mBatchedAnimator = frameClock != null ? new BatchedViewAnimator(frameClock) : null;
+        if (mBatchedAnimator == null) {
+            mSpringAnimations = false;
+        }
+    }
 
-        private MoveInfo(ViewHolder holder, int fromX, int fromY, int toX, int toY) {
-            this.holder = holder;
-            this.fromX = fromX;
-            this.fromY = fromY;
-            this.toX = toX;
-            this.toY = toY;
+    /**
+     * Record the frames rendered during the animations.
+     * Frames are counted with the frame clock of {@link #setFrameClock(FrameClock)} if any, so
+     * call it first.
+     * @param frameStatsListener Receives the frames measured over every animation, without
+     *                           allocation : may stay enabled in release builds. May be null.
+     * @param sink Receives one {@link AnimationMetrics} per add, remove, move & change animation,
+     *             named card_add, card_remove, card_move & card_change. May be null.
+     */
+    public void setMetrics(FrameStatsListener frameStatsListener, MetricsSink sink) {
+        mMetricsTracker = frameStatsListener != null || sink != null
+                ? new AnimationMetricsTracker(
+                        mFrameClock != null ? mFrameClock : ChoreographerFrameClock.getInstance(),
+                        mAnimResources.getRefreshRate(),
+                        frameStatsListener,
+                        sink)
+                : null;
+    }
+
+    /**
+     * Use springs instead of fixed duration animations. A card interrupted by a new animation
+     * (e.g. moved again while still moving) keeps its velocity, so animations can be restarted
+     * at any time without a visible jerk : see {@link #isInterruptible()}.
+     * Requires the batched backend, see {@link #setFrameClock(FrameClock)}.
+     * @param springAnimations true to enable
+     */
+    public void setSpringAnimations(boolean springAnimations) {
+        if (springAnimations && mBatchedAnimator == null) {
+            throw new IllegalStateException("Spring animations require a frame clock");
         }
+        mSpringAnimations = springAnimations;
+    }
+
+    /**
+     * Bound the number of add animations played at the same time : the cards added while the cap
+     * is reached are put in place immediately, so the cost of a frame doesn't grow with the number
+     * of cards added at once.
+     * @param maxConcurrentAdds Maximum number of add animations, 0 for no limit
+     */
+    public void setMaxConcurrentAddAnimations(int maxConcurrentAdds) {
+        if (maxConcurrentAdds < 0) {
+            throw new IllegalArgumentException("maxConcurrentAdds must be >= 0");
+        }
+        mMaxConcurrentAdds = maxConcurrentAdds;
+    }
+
+    /**
+     * @return true if the animations can be interrupted at any time : touch doesn't need to wait
+     * for them to end
+     */
+    public boolean isInterruptible() {
+        return mSpringAnimations;
+    }
+
+    private static class MoveInfo {
+        public ViewHolder holder;
+        public int fromX;
+        public int fromY;
+        public int toX;
+        public int toY;
+        // Velocity of the interrupted animation, springs only
+        public float velocityX;
+        public float velocityY;
     }
 
     private static class ChangeInfo {
         public ViewHolder oldHolder, newHolder;
         public int fromX, fromY, toX, toY;
-        private ChangeInfo(ViewHolder oldHolder, ViewHolder newHolder) {
-            this.oldHolder = oldHolder;
-            this.newHolder = newHolder;
-        }
-
-        private ChangeInfo(ViewHolder oldHolder, ViewHolder newHolder,
-                           int fromX, int fromY, int toX, int toY) {
-            this(oldHolder, newHolder);
-            this.fromX = fromX;
-            this.fromY = fromY;
-            this.toX = toX;
-            this.toY = toY;
-        }
+        // Velocity of the interrupted animation, springs only
+        public float velocityX, velocityY;
 
         @Override
         public String toString() {
@@ -123,109 +245,356 @@ public class CardAnimator extends RecyclerView.ItemAnimator {
      * Class to store original Y position
      */
     private static class AddInfo {
-        public final ViewHolder holder;
-        public final float originY;
+        public ViewHolder holder;
+        public float originY;
+    }
+
+    ////////////////////////////
+    // Pooled info & batches  //
+    ////////////////////////////
+
+    private MoveInfo obtainMoveInfo(ViewHolder holder, int fromX, int fromY, int toX, int toY) {
+        int size = mMoveInfoPool.size();
+        MoveInfo info = size > 0 ? mMoveInfoPool.remove(size - 1) : new MoveInfo();
+        info.holder = holder;
+        info.fromX = fromX;
+        info.fromY = fromY;
+        info.toX = toX;
+        info.toY = toY;
+        return info;
+    }
+
+    private void recycle(MoveInfo info) {
+        info.holder = null;
+        mMoveInfoPool.add(info);
+    }
+
+    private ChangeInfo obtainChangeInfo(ViewHolder oldHolder, ViewHolder newHolder,
+                                        int fromX, int fromY, int toX, int toY) {
+        int size = mChangeInfoPool.size();
+        ChangeInfo info = size > 0 ? mChangeInfoPool.remove(size - 1) : new ChangeInfo();
+        info.oldHolder = oldHolder;
+        info.newHolder = newHolder;
+        info.fromX = fromX;
+        info.fromY = fromY;
+        info.toX = toX;
+        info.toY = toY;
+        return info;
+    }
+
+    private void recycle(ChangeInfo info) {
+        info.oldHolder = null;
+        info.newHolder = null;
+        mChangeInfoPool.add(info);
+    }
+
+    private AddInfo obtainAddInfo(ViewHolder holder, float originY) {
+        int size = mAddInfoPool.size();
+        AddInfo info = size > 0 ? mAddInfoPool.remove(size - 1) : new AddInfo();
+        info.holder = holder;
+        info.originY = originY;
+        return info;
+    }
+
+    private void recycle(AddInfo info) {
+        info.holder = null;
+        mAddInfoPool.add(info);
+    }
+
+    /**
+     * Remove an object from a list, comparing references (batches are lists : equals() would
+     * compare their content)
+     */
+    private static <T> void removeIdentity(List<T> list, T toRemove) {
+        for (int i = list.size() - 1; i >= 0; i--) {
+            if (list.get(i) == toRemove) {
+                list.remove(i);
+                return;
+            }
+        }
+    }
+
+    ///////////////////////////
+    // Index of the holders  //
+    ///////////////////////////
+
+    private HolderState obtainState(ViewHolder holder) {
+        HolderState state = mHolderStates.get(holder);
+        if (state == null) {
+            int size = mHolderStatePool.size();
+            state = size > 0 ? mHolderStatePool.remove(size - 1) : new HolderState();
+            mHolderStates.put(holder, state);
+        }
+        return state;
+    }
+
+    private void releaseStateIfIdle(ViewHolder holder, HolderState state) {
+        if (state.pending == TYPE_NONE && !state.running) {
+            mHolderStates.remove(holder);
+            state.info = null;
+            mHolderStatePool.add(state);
+        }
+    }
+
+    /**
+     * Register a holder waiting in one of the pending lists
+     * @param holder Holder
+     * @param type TYPE_* constant
+     * @param info Info of the holder in the pending list, null for a removal
+     */
+    private void trackPending(ViewHolder holder, int type, Object info) {
+        HolderState state = obtainState(holder);
+        state.pending = type;
+        state.info = info;
+        state.batched = false;
+        mPendingCounts[type]++;
+    }
+
+    /**
+     * A pending holder has been moved to a batch, waiting for the previous animations
+     */
+    private void trackBatched(ViewHolder holder) {
+        HolderState state = mHolderStates.get(holder);
+        mPendingCounts[state.pending]--;
+        state.batched = true;
+        mBatchedCount++;
+    }
+
+    /**
+     * A holder isn't pending nor batched anymore, either started or ended
+     */
+    private void untrackPending(ViewHolder holder) {
+        HolderState state = mHolderStates.get(holder);
+        if (state.batched) {
+            mBatchedCount--;
+        } else {
+            mPendingCounts[state.pending]--;
+        }
+        state.pending = TYPE_NONE;
+        state.info = null;
+        state.batched = false;
+        releaseStateIfIdle(holder, state);
+    }
+
+    /**
+     * Call right after starting the animation of a holder
+     */
+    private void trackRunning(ViewHolder holder) {
+        HolderState state = obtainState(holder);
+        if (!state.running) {
+            state.running = true;
+            mRunningCount++;
+        }
+    }
+
+    /**
+     * Call when the animation of a holder ends
+     */
+    private void untrackRunning(ViewHolder holder) {
+        HolderState state = mHolderStates.get(holder);
+        if (state != null && state.running) {
+            state.running = false;
+            mRunningCount--;
+            releaseStateIfIdle(holder, state);
+        }
+    }
 
-        private AddInfo(ViewHolder holder, float originY) {
-            this.holder = holder;
-            this.originY = originY;
+    /**
+     * Moves started together, runs itself when the removals are done
+     */
+    private class MoveBatch extends ArrayList<MoveInfo> implements Runnable {
+        @Override
+        public void run() {
+            for (int i = 0; i < size(); i++) {
+                MoveInfo moveInfo = get(i);
+                // Holder is null if its animation was ended in the meantime
+                if (moveInfo.holder != null) {
+                    untrackPending(moveInfo.holder);
+                    animateMoveImpl(moveInfo);
+                }
+                recycle(moveInfo);
+            }
+            clear();
+            removeIdentity(mMovesList, this);
+            mMoveBatchPool.add(this);
+        }
+    }
+
+    /**
+     * Changes started together, runs itself when the removals are done
+     */
+    private class ChangeBatch extends ArrayList<ChangeInfo> implements Runnable {
+        @Override
+        public void run() {
+            for (int i = 0; i < size(); i++) {
+                ChangeInfo change = get(i);
+                if (change.oldHolder != null) {
+                    untrackPending(change.oldHolder);
+                }
+                if (change.newHolder != null) {
+                    untrackPending(change.newHolder);
+                }
+                animateChangeImpl(change);
+                recycle(change);
+            }
+            clear();
+            removeIdentity(mChangesList, this);
+            mChangeBatchPool.add(this);
+        }
+    }
+
+    /**
+     * Additions started together, runs itself when the removals, moves & changes are done
+     */
+    private class AddBatch extends ArrayList<AddInfo> implements Runnable {
+        @Override
+        public void run() {
+            for (int i = 0; i < size(); i++) {
+                AddInfo addInfo = get(i);
+                if (addInfo.holder != null) {
+                    untrackPending(addInfo.holder);
+                    animateAddImpl(addInfo);
+                }
+                recycle(addInfo);
+            }
+            clear();
+            removeIdentity(mAdditionsList, this);
+            mAddBatchPool.add(this);
         }
     }
 
     @Override
     public void runPendingAnimations() {
-        boolean removalsPending = !mPendingRemovals.isEmpty();
-        boolean movesPending = !mPendingMoves.isEmpty();
-        boolean changesPending = !mPendingChanges.isEmpty();
-        boolean additionsPending = !mPendingAdditions.isEmpty();
+        boolean removalsPending = mPendingCounts[TYPE_REMOVE] > 0;
+        boolean movesPending = mPendingCounts[TYPE_MOVE] > 0;
+        boolean changesPending = mPendingCounts[TYPE_CHANGE] > 0;
+        boolean additionsPending = mPendingCounts[TYPE_ADD] > 0;
         if (!removalsPending && !movesPending && !additionsPending && !changesPending) {
-            // nothing to animate
+            // nothing to animate, drop the ended entries
+            clearPendingLists();
             return;
         }
         // First, remove stuff
-        for (ViewHolder holder : mPendingRemovals) {
-            animateRemoveImpl(holder);
+        for (int i = 0; i < mPendingRemovals.size(); i++) {
+            ViewHolder holder = mPendingRemovals.get(i);
+            // Skip the removals ended in the meantime
+            HolderState state = mHolderStates.get(holder);
+            if (state != null && state.pending == TYPE_REMOVE) {
+                untrackPending(holder);
+                animateRemoveImpl(holder);
+            }
         }
         mPendingRemovals.clear();
         // Next, move stuff
         if (movesPending) {
-            final ArrayList<MoveInfo> moves = new ArrayList<>();
-            moves.addAll(mPendingMoves);
+            int pooled = mMoveBatchPool.size();
+            MoveBatch moves = pooled > 0 ? mMoveBatchPool.remove(pooled - 1) : new MoveBatch();
+            for (int i = 0; i < mPendingMoves.size(); i++) {
+                MoveInfo moveInfo = mPendingMoves.get(i);
+                if (moveInfo.holder != null) {
+                    trackBatched(moveInfo.holder);
+                    moves.add(moveInfo);
+                } else {
+                    recycle(moveInfo);
+                }
+            }
             mMovesList.add(moves);
             mPendingMoves.clear();
-            Runnable mover = new Runnable() {
-                @Override
-                public void run() {
-                    for (MoveInfo moveInfo : moves) {
-                        animateMoveImpl(moveInfo.holder, moveInfo.fromX, moveInfo.fromY,
-                                moveInfo.toX, moveInfo.toY);
-                    }
-                    moves.clear();
-                    mMovesList.remove(moves);
-                }
-            };
             if (removalsPending) {
                 View view = moves.get(0).holder.itemView;
-                ViewCompat.postOnAnimationDelayed(view, mover, getRemoveDuration());
+                ViewCompat.postOnAnimationDelayed(view, moves, getRemoveDuration());
             } else {
-                mover.run();
+                moves.run();
             }
         }
         // Next, change stuff, to run in parallel with move animations
         if (changesPending) {
-            final ArrayList<ChangeInfo> changes = new ArrayList<>();
-            changes.addAll(mPendingChanges);
+            int pooled = mChangeBatchPool.size();
+            ChangeBatch changes = pooled > 0
+                    ? mChangeBatchPool.remove(pooled - 1)
+                    : new ChangeBatch();
+            for (int i = 0; i < mPendingChanges.size(); i++) {
+                ChangeInfo changeInfo = mPendingChanges.get(i);
+                if (changeInfo.oldHolder == null && changeInfo.newHolder == null) {
+                    recycle(changeInfo);
+                    continue;
+                }
+                if (changeInfo.oldHolder != null) {
+                    trackBatched(changeInfo.oldHolder);
+                }
+                if (changeInfo.newHolder != null) {
+                    trackBatched(changeInfo.newHolder);
+                }
+                changes.add(changeInfo);
+            }
             mChangesList.add(changes);
             mPendingChanges.clear();
-            Runnable changer = new Runnable() {
-                @Override
-                public void run() {
-                    for (ChangeInfo change : changes) {
-                        animateChangeImpl(change);
-                    }
-                    changes.clear();
-                    mChangesList.remove(changes);
-                }
-            };
             if (removalsPending) {
-                ViewHolder holder = changes.get(0).oldHolder;
-                ViewCompat.postOnAnimationDelayed(holder.itemView, changer, getRemoveDuration());
+                ChangeInfo first = changes.get(0);
+                ViewHolder holder = first.oldHolder != null ? first.oldHolder : first.newHolder;
+                ViewCompat.postOnAnimationDelayed(holder.itemView, changes, getRemoveDuration());
             } else {
-                changer.run();
+                changes.run();
             }
         }
         // Next, add stuff
         if (additionsPending) {
-            final ArrayList<AddInfo> additions = new ArrayList<>();
-            additions.addAll(mPendingAdditions);
+            int pooled = mAddBatchPool.size();
+            AddBatch additions = pooled > 0 ? mAddBatchPool.remove(pooled - 1) : new AddBatch();
+            for (int i = 0; i < mPendingAdditions.size(); i++) {
+                AddInfo addInfo = mPendingAdditions.get(i);
+                if (addInfo.holder != null) {
+                    trackBatched(addInfo.holder);
+                    additions.add(addInfo);
+                } else {
+                    recycle(addInfo);
+                }
+            }
             mAdditionsList.add(additions);
             mPendingAdditions.clear();
-            Runnable adder = new Runnable() {
-                public void run() {
-                    for (AddInfo addInfo : additions) {
-                        animateAddImpl(addInfo);
-                    }
-                    additions.clear();
-                    mAdditionsList.remove(additions);
-                }
-            };
             if (removalsPending || movesPending || changesPending) {
                 long removeDuration = removalsPending ? getRemoveDuration() : 0;
                 long moveDuration = movesPending ? getMoveDuration() : 0;
                 long changeDuration = changesPending ? getChangeDuration() : 0;
                 long totalDelay = removeDuration + Math.max(moveDuration, changeDuration);
                 View view = additions.get(0).holder.itemView;
-                ViewCompat.postOnAnimationDelayed(view, adder, totalDelay);
+                ViewCompat.postOnAnimationDelayed(view, additions, totalDelay);
             } else {
-                adder.run();
+                additions.run();
             }
         }
+        clearPendingLists();
+    }
+
+    /**
+     * Empty the pending lists, which only contain ended entries once the live ones are started
+     */
+    private void clearPendingLists() {
+        mPendingRemovals.clear();
+        for (int i = 0; i < mPendingMoves.size(); i++) {
+            recycle(mPendingMoves.get(i));
+        }
+        mPendingMoves.clear();
+        for (int i = 0; i < mPendingChanges.size(); i++) {
+            recycle(mPendingChanges.get(i));
+        }
+        mPendingChanges.clear();
+        for (int i = 0; i < mPendingAdditions.size(); i++) {
+            recycle(mPendingAdditions.get(i));
+        }
+        mPendingAdditions.clear();
     }
 
     @Override
     public boolean animateRemove(final ViewHolder holder) {
         endAnimation(holder);
+        if (isMotionDisabled()) {
+            resetView(holder.itemView);
+            dispatchRemoveFinished(holder);
+            return false;
+        }
         mPendingRemovals.add(holder);
+        trackPending(holder, TYPE_REMOVE, null);
         return true;
     }
 
@@ -235,23 +604,9 @@ public class CardAnimator extends RecyclerView.ItemAnimator {
      */
     private void animateRemoveImpl(final ViewHolder holder) {
         final View view = holder.itemView;
-        final ViewPropertyAnimatorCompat animation = ViewCompat.animate(view);
-        animation.setDuration(getRemoveDuration())
-                .alpha(0).setListener(new VpaListenerAdapter() {
-            @Override
-            public void onAnimationStart(View view) {
-                dispatchRemoveStarting(holder);
-            }
-            @Override
-            public void onAnimationEnd(View view) {
-                animation.setListener(null);
-                ViewCompat.setAlpha(view, 1);
-                dispatchRemoveFinished(holder);
-                mRemoveAnimations.remove(holder);
-                dispatchFinishedWhenDone();
-            }
-        }).start();
-        mRemoveAnimations.add(holder);
+        startViewAnimation(view, Float.NaN, Float.NaN, 0, getRemoveDuration(), null, 0, 0,
+                obtainRemoveListener(holder));
+        trackRunning(holder);
     }
 
 
@@ -263,20 +618,29 @@ public class CardAnimator extends RecyclerView.ItemAnimator {
     @Override
     public boolean animateAdd(final ViewHolder holder) {
         endAnimation(holder);
+        if (isMotionDisabled()
+                || (mMaxConcurrentAdds > 0 && mAddAnimationCount >= mMaxConcurrentAdds)) {
+            // No animation, or overflow : snap into place
+            resetView(holder.itemView);
+            dispatchAddFinished(holder);
+            return false;
+        }
 
         // Get the screen dimensions
-        WindowManager wm = (WindowManager) mContext.getSystemService(Context.WINDOW_SERVICE);
-        Display display = wm.getDefaultDisplay();
-        Point size = new Point();
-        display.getSize(size);
-        int height = size.y;
+        int height = mAnimResources.getScreenHeight();
+        if (!mMotionPolicy.isFullMotion()) {
+            // Reduced motion : only slide up from a short distance
+            height = (int) holder.itemView.getY() + height / REDUCED_ADD_OFFSET_DIVIDER;
+        }
 
         // Save Y position of origin
-        AddInfo addInfo = new AddInfo(holder, holder.itemView.getY());
+        AddInfo addInfo = obtainAddInfo(holder, holder.itemView.getY());
 
         // Start animation with view below screen
         holder.itemView.setY(height);
         mPendingAdditions.add(addInfo);
+        trackPending(holder, TYPE_ADD, addInfo);
+        mAddAnimationCount++;
         return true;
     }
 
@@ -287,31 +651,11 @@ public class CardAnimator extends RecyclerView.ItemAnimator {
     private void animateAddImpl(final AddInfo addInfo) {
         final ViewHolder holder = addInfo.holder;
         final View view = holder.itemView;
-        mAddAnimations.add(holder);
-        final ViewPropertyAnimatorCompat animation = ViewCompat.animate(view);
-        animation.setInterpolator(
-                AnimCompatUtils.createInterpolator(mContext)
-        );
-        animation.y(addInfo.originY).setDuration(getAddDuration()).
-                setListener(new VpaListenerAdapter() {
-                    @Override
-                    public void onAnimationStart(View view) {
-                        dispatchAddStarting(holder);
-                    }
-
-                    @Override
-                    public void onAnimationCancel(View view) {
-                        ViewCompat.setAlpha(view, 1);
-                    }
-
-                    @Override
-                    public void onAnimationEnd(View view) {
-                        animation.setListener(null);
-                        dispatchAddFinished(holder);
-                        mAddAnimations.remove(holder);
-                        dispatchFinishedWhenDone();
-                    }
-                }).start();
+        // y = top + translationY
+        startViewAnimation(view, Float.NaN, addInfo.originY - view.getTop(), Float.NaN,
+                getAddDuration(), mAnimResources.getInterpolator(), 0, 0,
+                obtainAddListener(holder));
+        trackRunning(holder);
     }
 
     @Override
@@ -320,9 +664,17 @@ public class CardAnimator extends RecyclerView.ItemAnimator {
         final View view = holder.itemView;
         fromX += ViewCompat.getTranslationX(holder.itemView);
         fromY += ViewCompat.getTranslationY(holder.itemView);
+        // Carry on at the same speed if the card was already moving
+        final float velocityX = getViewVelocityX(view);
+        final float velocityY = getViewVelocityY(view);
         endAnimation(holder);
         int deltaX = toX - fromX;
         int deltaY = toY - fromY;
+        if (isMotionDisabled()) {
+            resetView(view);
+            dispatchMoveFinished(holder);
+            return false;
+        }
         if (deltaX == 0 && deltaY == 0) {
             dispatchMoveFinished(holder);
             return false;
@@ -333,47 +685,34 @@ public class CardAnimator extends RecyclerView.ItemAnimator {
         if (deltaY != 0) {
             ViewCompat.setTranslationY(view, -deltaY);
         }
-        mPendingMoves.add(new MoveInfo(holder, fromX, fromY, toX, toY));
+        MoveInfo moveInfo = obtainMoveInfo(holder, fromX, fromY, toX, toY);
+        moveInfo.velocityX = velocityX;
+        moveInfo.velocityY = velocityY;
+        mPendingMoves.add(moveInfo);
+        trackPending(holder, TYPE_MOVE, moveInfo);
         return true;
     }
 
-    private void animateMoveImpl(final ViewHolder holder, int fromX, int fromY, int toX, int toY) {
+    private void animateMoveImpl(final MoveInfo moveInfo) {
+        final ViewHolder holder = moveInfo.holder;
         final View view = holder.itemView;
-        final int deltaX = toX - fromX;
-        final int deltaY = toY - fromY;
-        if (deltaX != 0) {
-            ViewCompat.animate(view).translationX(0);
-        }
-        if (deltaY != 0) {
-            ViewCompat.animate(view).translationY(0);
-        }
+        final int deltaX = moveInfo.toX - moveInfo.fromX;
+        final int deltaY = moveInfo.toY - moveInfo.fromY;
         // TODO EXTERNAL : make EndActions end listeners instead, since end actions aren't called when
         // vpas are canceled (and can't end them. why?)
         // need listener functionality in VPACompat for this. Ick.
-        mMoveAnimations.add(holder);
-        final ViewPropertyAnimatorCompat animation = ViewCompat.animate(view);
-        animation.setDuration(getMoveDuration()).setListener(new VpaListenerAdapter() {
-            @Override
-            public void onAnimationStart(View view) {
-                dispatchMoveStarting(holder);
-            }
-            @Override
-            public void onAnimationCancel(View view) {
-                if (deltaX != 0) {
-                    ViewCompat.setTranslationX(view, 0);
-                }
-                if (deltaY != 0) {
-                    ViewCompat.setTranslationY(view, 0);
-                }
-            }
-            @Override
-            public void onAnimationEnd(View view) {
-                animation.setListener(null);
-                dispatchMoveFinished(holder);
-                mMoveAnimations.remove(holder);
-                dispatchFinishedWhenDone();
-            }
-        }).start();
+        startViewAnimation(
+                view,
+                deltaX != 0 ? 0 : Float.NaN,
+                deltaY != 0 ? 0 : Float.NaN,
+                Float.NaN,
+                getMoveDuration(),
+                null,
+                moveInfo.velocityX,
+                moveInfo.velocityY,
+                obtainMoveListener(holder, deltaX, deltaY)
+        );
+        trackRunning(holder);
     }
 
     @Override
@@ -382,7 +721,19 @@ public class CardAnimator extends RecyclerView.ItemAnimator {
         final float prevTranslationX = ViewCompat.getTranslationX(oldHolder.itemView);
         final float prevTranslationY = ViewCompat.getTranslationY(oldHolder.itemView);
         final float prevAlpha = ViewCompat.getAlpha(oldHolder.itemView);
+        final float velocityX = getViewVelocityX(oldHolder.itemView);
+        final float velocityY = getViewVelocityY(oldHolder.itemView);
         endAnimation(oldHolder);
+        if (isMotionDisabled()) {
+            resetView(oldHolder.itemView);
+            dispatchChangeFinished(oldHolder, true);
+            if (newHolder != null && newHolder != oldHolder) {
+                endAnimation(newHolder);
+                resetView(newHolder.itemView);
+                dispatchChangeFinished(newHolder, false);
+            }
+            return false;
+        }
         int deltaX = (int) (toX - fromX - prevTranslationX);
         int deltaY = (int) (toY - fromY - prevTranslationY);
         // recover prev translation state after ending animation
@@ -395,69 +746,37 @@ public class CardAnimator extends RecyclerView.ItemAnimator {
             ViewCompat.setTranslationX(newHolder.itemView, -deltaX);
             ViewCompat.setTranslationY(newHolder.itemView, -deltaY);
             ViewCompat.setAlpha(newHolder.itemView, 0);
+        } else {
+            newHolder = null;
+        }
+        ChangeInfo changeInfo = obtainChangeInfo(oldHolder, newHolder, fromX, fromY, toX, toY);
+        changeInfo.velocityX = velocityX;
+        changeInfo.velocityY = velocityY;
+        mPendingChanges.add(changeInfo);
+        trackPending(oldHolder, TYPE_CHANGE, changeInfo);
+        if (newHolder != null) {
+            trackPending(newHolder, TYPE_CHANGE, changeInfo);
         }
-        mPendingChanges.add(new ChangeInfo(oldHolder, newHolder, fromX, fromY, toX, toY));
         return true;
     }
 
     private void animateChangeImpl(final ChangeInfo changeInfo) {
         final ViewHolder holder = changeInfo.oldHolder;
-        final View view = holder.itemView;
+        final View view = holder != null ? holder.itemView : null;
         final ViewHolder newHolder = changeInfo.newHolder;
         final View newView = newHolder != null ? newHolder.itemView : null;
-        mChangeAnimations.add(changeInfo.oldHolder);
-
-        final ViewPropertyAnimatorCompat oldViewAnim = ViewCompat.animate(view).setDuration(
-                getChangeDuration());
-        oldViewAnim.translationX(changeInfo.toX - changeInfo.fromX);
-        oldViewAnim.translationY(changeInfo.toY - changeInfo.fromY);
-        oldViewAnim.alpha(0).setListener(new VpaListenerAdapter() {
-            @Override
-            public void onAnimationStart(View view) {
-                dispatchChangeStarting(changeInfo.oldHolder, true);
-            }
-            @Override
-            public void onAnimationEnd(View view) {
-                oldViewAnim.setListener(null);
-                ViewCompat.setAlpha(view, 1);
-                ViewCompat.setTranslationX(view, 0);
-                ViewCompat.setTranslationY(view, 0);
-                dispatchChangeFinished(changeInfo.oldHolder, true);
-                mChangeAnimations.remove(changeInfo.oldHolder);
-                dispatchFinishedWhenDone();
-            }
-        }).start();
-        if (newView != null) {
-            mChangeAnimations.add(changeInfo.newHolder);
-            final ViewPropertyAnimatorCompat newViewAnimation = ViewCompat.animate(newView);
-            newViewAnimation.translationX(0).translationY(0).setDuration(getChangeDuration()).
-                    alpha(1).setListener(new VpaListenerAdapter() {
-                @Override
-                public void onAnimationStart(View view) {
-                    dispatchChangeStarting(changeInfo.newHolder, false);
-                }
-                @Override
-                public void onAnimationEnd(View view) {
-                    newViewAnimation.setListener(null);
-                    ViewCompat.setAlpha(newView, 1);
-                    ViewCompat.setTranslationX(newView, 0);
-                    ViewCompat.setTranslationY(newView, 0);
-                    dispatchChangeFinished(changeInfo.newHolder, false);
-                    mChangeAnimations.remove(changeInfo.newHolder);
-                    dispatchFinishedWhenDone();
-                }
-            }).start();
+        if (view != null) {
+            startViewAnimation(view, changeInfo.toX - changeInfo.fromX,
+                    changeInfo.toY - changeInfo.fromY, 0, getChangeDuration(), null,
+                    changeInfo.velocityX, changeInfo.velocityY,
+                    obtainChangeListener(holder, true));
+            trackRunning(holder);
         }
-    }
-
-    private void endChangeAnimation(List<ChangeInfo> infoList, ViewHolder item) {
-        for (int i = infoList.size() - 1; i >= 0; i--) {
-            ChangeInfo changeInfo = infoList.get(i);
-            if (endChangeAnimationIfNecessary(changeInfo, item)) {
-                if (changeInfo.oldHolder == null && changeInfo.newHolder == null) {
-                    infoList.remove(changeInfo);
-                }
-            }
+        if (newView != null) {
+            startViewAnimation(newView, 0, 0, 1, getChangeDuration(), null,
+                    changeInfo.velocityX, changeInfo.velocityY,
+                    obtainChangeListener(newHolder, false));
+            trackRunning(newHolder);
         }
     }
 
@@ -479,6 +798,7 @@ public class CardAnimator extends RecyclerView.ItemAnimator {
         } else {
             return false;
         }
+        untrackPending(item);
         ViewCompat.setAlpha(item.itemView, 1);
         ViewCompat.setTranslationX(item.itemView, 0);
         ViewCompat.setTranslationY(item.itemView, 0);
@@ -486,81 +806,63 @@ public class CardAnimator extends RecyclerView.ItemAnimator {
         return true;
     }
 
-    @Override
-    public void endAnimation(ViewHolder item) {
+    /**
+     * End the pending or batched animation of a holder, if any.
+     * Its entry stays in the pending list or batch, with the holder set to null : it is skipped
+     * and recycled when the list or batch is processed.
+     * @param item Holder
+     */
+    private void endPendingAnimation(ViewHolder item) {
+        HolderState state = mHolderStates.get(item);
+        if (state == null || state.pending == TYPE_NONE) {
+            return;
+        }
         final View view = item.itemView;
-        // this will trigger end callback which should set properties to their target values.
-        ViewCompat.animate(view).cancel();
-        // TODO EXTERNAL : if some other animations are chained to end, how do we cancel them as well?
-        for (int i = mPendingMoves.size() - 1; i >= 0; i--) {
-            MoveInfo moveInfo = mPendingMoves.get(i);
-            if (moveInfo.holder == item) {
+        switch (state.pending) {
+            case TYPE_MOVE:
+                ((MoveInfo) state.info).holder = null;
+                untrackPending(item);
                 ViewCompat.setTranslationY(view, 0);
                 ViewCompat.setTranslationX(view, 0);
                 dispatchMoveFinished(item);
-                mPendingMoves.remove(item);
-            }
-        }
-        endChangeAnimation(mPendingChanges, item);
-        if (mPendingRemovals.remove(item)) {
-            ViewCompat.setAlpha(view, 1);
-            dispatchRemoveFinished(item);
-        }
-        if (mPendingAdditions.remove(item)) {
-            ViewCompat.setAlpha(view, 1);
-            dispatchAddFinished(item);
-        }
-
-        for (int i = mChangesList.size() - 1; i >= 0; i--) {
-            ArrayList<ChangeInfo> changes = mChangesList.get(i);
-            endChangeAnimation(changes, item);
-            if (changes.isEmpty()) {
-                mChangesList.remove(changes);
-            }
-        }
-        for (int i = mMovesList.size() - 1; i >= 0; i--) {
-            ArrayList<MoveInfo> moves = mMovesList.get(i);
-            for (int j = moves.size() - 1; j >= 0; j--) {
-                MoveInfo moveInfo = moves.get(j);
-                if (moveInfo.holder == item) {
-                    ViewCompat.setTranslationY(view, 0);
-                    ViewCompat.setTranslationX(view, 0);
-                    dispatchMoveFinished(item);
-                    moves.remove(j);
-                    if (moves.isEmpty()) {
-                        mMovesList.remove(moves);
-                    }
-                    break;
-                }
-            }
-        }
-        for (int i = mAdditionsList.size() - 1; i >= 0; i--) {
-            ArrayList<AddInfo> additions = mAdditionsList.get(i);
-            if (additions.remove(item)) {
+                break;
+            case TYPE_CHANGE:
+                endChangeAnimationIfNecessary((ChangeInfo) state.info, item);
+                break;
+            case TYPE_REMOVE:
+                untrackPending(item);
+                ViewCompat.setAlpha(view, 1);
+                dispatchRemoveFinished(item);
+                break;
+            case TYPE_ADD:
+                ((AddInfo) state.info).holder = null;
+                untrackPending(item);
+                mAddAnimationCount--;
                 ViewCompat.setAlpha(view, 1);
                 dispatchAddFinished(item);
-                if (additions.isEmpty()) {
-                    mAdditionsList.remove(additions);
-                }
-            }
+                break;
         }
+    }
+
+    @Override
+    public void endAnimation(ViewHolder item) {
+        final View view = item.itemView;
+        // this will trigger end callback which should set properties to their target values.
+        cancelViewAnimation(view);
+        // TODO EXTERNAL : if some other animations are chained to end, how do we cancel them as well?
+        endPendingAnimation(item);
 
         dispatchFinishedWhenDone();
     }
 
     @Override
     public boolean isRunning() {
-        return (!mPendingAdditions.isEmpty() ||
-                !mPendingChanges.isEmpty() ||
-                !mPendingMoves.isEmpty() ||
-                !mPendingRemovals.isEmpty() ||
-                !mMoveAnimations.isEmpty() ||
-                !mRemoveAnimations.isEmpty() ||
-                !mAddAnimations.isEmpty() ||
-                !mChangeAnimations.isEmpty() ||
-                !mMovesList.isEmpty() ||
-                !mAdditionsList.isEmpty() ||
-                !mChangesList.isEmpty());
+        return mPendingCounts[TYPE_REMOVE] > 0
+                || mPendingCounts[TYPE_ADD] > 0
+                || mPendingCounts[TYPE_MOVE] > 0
+                || mPendingCounts[TYPE_CHANGE] > 0
+                || mBatchedCount > 0
+                || mRunningCount > 0;
     }
 
     /**
@@ -576,93 +878,159 @@ public class CardAnimator extends RecyclerView.ItemAnimator {
 
     @Override
     public void endAnimations() {
-        int count = mPendingMoves.size();
-        for (int i = count - 1; i >= 0; i--) {
-            MoveInfo item = mPendingMoves.get(i);
-            View view = item.holder.itemView;
-            ViewCompat.setTranslationY(view, 0);
-            ViewCompat.setTranslationX(view, 0);
-            dispatchMoveFinished(item.holder);
-            mPendingMoves.remove(i);
-        }
-        count = mPendingRemovals.size();
-        for (int i = count - 1; i >= 0; i--) {
-            ViewHolder item = mPendingRemovals.get(i);
-            dispatchRemoveFinished(item);
-            mPendingRemovals.remove(i);
-        }
-        count = mPendingAdditions.size();
-        for (int i = count - 1; i >= 0; i--) {
-            ViewHolder item = mPendingAdditions.get(i).holder;
-            View view = item.itemView;
-            ViewCompat.setAlpha(view, 1);
-            dispatchAddFinished(item);
-            mPendingAdditions.remove(i);
+        // Pending & batched : ends every live entry
+        for (int i = mPendingRemovals.size() - 1; i >= 0; i--) {
+            endPendingAnimation(mPendingRemovals.get(i));
+        }
+        for (int i = mPendingMoves.size() - 1; i >= 0; i--) {
+            MoveInfo moveInfo = mPendingMoves.get(i);
+            if (moveInfo.holder != null) {
+                endPendingAnimation(moveInfo.holder);
+            }
         }
-        count = mPendingChanges.size();
-        for (int i = count - 1; i >= 0; i--) {
+        for (int i = mPendingAdditions.size() - 1; i >= 0; i--) {
+            AddInfo addInfo = mPendingAdditions.get(i);
+            if (addInfo.holder != null) {
+                endPendingAnimation(addInfo.holder);
+            }
+        }
+        for (int i = mPendingChanges.size() - 1; i >= 0; i--) {
             endChangeAnimationIfNecessary(mPendingChanges.get(i));
         }
-        mPendingChanges.clear();
+        clearPendingLists();
         if (!isRunning()) {
             return;
         }
 
-        int listCount = mMovesList.size();
-        for (int i = listCount - 1; i >= 0; i--) {
-            ArrayList<MoveInfo> moves = mMovesList.get(i);
-            count = moves.size();
-            for (int j = count - 1; j >= 0; j--) {
+        for (int i = mMovesList.size() - 1; i >= 0; i--) {
+            MoveBatch moves = mMovesList.get(i);
+            for (int j = moves.size() - 1; j >= 0; j--) {
                 MoveInfo moveInfo = moves.get(j);
-                ViewHolder item = moveInfo.holder;
-                View view = item.itemView;
-                ViewCompat.setTranslationY(view, 0);
-                ViewCompat.setTranslationX(view, 0);
-                dispatchMoveFinished(moveInfo.holder);
-                moves.remove(j);
-                if (moves.isEmpty()) {
-                    mMovesList.remove(moves);
+                if (moveInfo.holder != null) {
+                    endPendingAnimation(moveInfo.holder);
                 }
+                recycle(moveInfo);
             }
+            // The batch is still posted : it runs empty, then goes back to the pool
+            moves.clear();
         }
-        listCount = mAdditionsList.size();
-        for (int i = listCount - 1; i >= 0; i--) {
-            ArrayList<AddInfo> additions = mAdditionsList.get(i);
-            count = additions.size();
-            for (int j = count - 1; j >= 0; j--) {
-                ViewHolder item = additions.get(j).holder;
-                View view = item.itemView;
-                ViewCompat.setAlpha(view, 1);
-                dispatchAddFinished(item);
-                additions.remove(j);
-                if (additions.isEmpty()) {
-                    mAdditionsList.remove(additions);
+        mMovesList.clear();
+        for (int i = mAdditionsList.size() - 1; i >= 0; i--) {
+            AddBatch additions = mAdditionsList.get(i);
+            for (int j = additions.size() - 1; j >= 0; j--) {
+                AddInfo addInfo = additions.get(j);
+                if (addInfo.holder != null) {
+                    endPendingAnimation(addInfo.holder);
                 }
+                recycle(addInfo);
             }
+            additions.clear();
         }
-        listCount = mChangesList.size();
-        for (int i = listCount - 1; i >= 0; i--) {
-            ArrayList<ChangeInfo> changes = mChangesList.get(i);
-            count = changes.size();
-            for (int j = count - 1; j >= 0; j--) {
-                endChangeAnimationIfNecessary(changes.get(j));
-                if (changes.isEmpty()) {
-                    mChangesList.remove(changes);
-                }
+        mAdditionsList.clear();
+        for (int i = mChangesList.size() - 1; i >= 0; i--) {
+            ChangeBatch changes = mChangesList.get(i);
+            for (int j = changes.size() - 1; j >= 0; j--) {
+                ChangeInfo changeInfo = changes.get(j);
+                endChangeAnimationIfNecessary(changeInfo);
+                recycle(changeInfo);
             }
+            changes.clear();
         }
+        mChangesList.clear();
 
-        cancelAll(mRemoveAnimations);
-        cancelAll(mMoveAnimations);
-        cancelAll(mAddAnimations);
-        cancelAll(mChangeAnimations);
+        // Running : the end callbacks remove the holders from the index
+        if (mRunningCount > 0) {
+            mRunningHolders.addAll(mHolderStates.keySet());
+            for (int i = mRunningHolders.size() - 1; i >= 0; i--) {
+                cancelViewAnimation(mRunningHolders.get(i).itemView);
+            }
+            mRunningHolders.clear();
+        }
 
         dispatchAnimationsFinished();
     }
 
-    private void cancelAll(List<ViewHolder> viewHolders) {
-        for (int i = viewHolders.size() - 1; i >= 0; i--) {
-            ViewCompat.animate(viewHolders.get(i).itemView).cancel();
+    /**
+     * Animate a view with the current backend. NaN properties are not animated.
+     * @param view View to animate
+     * @param translationX Final translationX
+     * @param translationY Final translationY
+     * @param alpha Final alpha
+     * @param duration Duration in ms
+     * @param interpolator Interpolator, null to keep the default one
+     * @param velocityX Initial velocity of translationX in px/s, springs only
+     * @param velocityY Initial velocity of translationY in px/s, springs only
+     * @param listener Listener, detached when the animation ends
+     */
+    private void startViewAnimation(View view, float translationX, float translationY,
+                                    float alpha, long duration, Interpolator interpolator,
+                                    float velocityX, float velocityY,
+                                    AnimationListener listener) {
+        if (mMetricsTracker != null) {
+            listener.mMetricsSession = mMetricsTracker.begin(listener.mMetricsName);
+        }
+        if (mSpringAnimations) {
+            mBatchedAnimator.animateSpring(view, translationX, translationY, alpha,
+                    velocityX, velocityY, listener);
+            return;
+        }
+        if (mBatchedAnimator != null) {
+            mBatchedAnimator.animate(view, translationX, translationY, alpha, duration,
+                    interpolator, listener);
+            return;
+        }
+        final ViewPropertyAnimatorCompat animation = ViewCompat.animate(view);
+        if (!Float.isNaN(translationX)) {
+            animation.translationX(translationX);
+        }
+        if (!Float.isNaN(translationY)) {
+            animation.translationY(translationY);
+        }
+        if (!Float.isNaN(alpha)) {
+            animation.alpha(alpha);
+        }
+        if (interpolator != null) {
+            animation.setInterpolator(interpolator);
+        }
+        listener.mAnimation = animation;
+        animation.setDuration(duration).setListener(listener).start();
+    }
+
+    /**
+     * @return true if the views must be moved to their final state without animation
+     */
+    private boolean isMotionDisabled() {
+        return mMotionPolicy.getLevel() == MotionPolicy.Level.NONE;
+    }
+
+    /**
+     * Move a view to its final state, used when no animation is played
+     * @param view View to reset
+     */
+    private void resetView(View view) {
+        ViewCompat.setTranslationX(view, 0);
+        ViewCompat.setTranslationY(view, 0);
+        ViewCompat.setAlpha(view, 1);
+    }
+
+    private float getViewVelocityX(View view) {
+        return mSpringAnimations ? mBatchedAnimator.getVelocityX(view) : 0;
+    }
+
+    private float getViewVelocityY(View view) {
+        return mSpringAnimations ? mBatchedAnimator.getVelocityY(view) : 0;
+    }
+
+    /**
+     * Cancel the animation of a view, with the current backend.
+     * The end callback of its listener is called.
+     * @param view Animated view
+     */
+    private void cancelViewAnimation(View view) {
+        if (mBatchedAnimator != null) {
+            mBatchedAnimator.cancel(view);
+        } else {
+            ViewCompat.animate(view).cancel();
         }
     }
 
@@ -676,4 +1044,203 @@ public class CardAnimator extends RecyclerView.ItemAnimator {
         @Override
         public void onAnimationCancel(View view) {}
     }
+
+    //////////////////////////////////////////////////////////
+    // Pooled listeners, recycled when their animation ends //
+    //////////////////////////////////////////////////////////
+
+    /**
+     * Listener of an animation started with {@link #startViewAnimation}
+     */
+    private class AnimationListener extends VpaListenerAdapter {
+        private final String mMetricsName;
+        // Only set with the ViewPropertyAnimatorCompat backend
+        private ViewPropertyAnimatorCompat mAnimation;
+        // Only set when metrics are recorded
+        private AnimationMetricsTracker.Session mMetricsSession;
+        private boolean mCancelled = false;
+
+        /**
+         * @param metricsName Name of the animation in the metrics
+         */
+        AnimationListener(String metricsName) {
+            mMetricsName = metricsName;
+        }
+
+        @Override
+        public void onAnimationCancel(View view) {
+            mCancelled = true;
+        }
+
+        void detach() {
+            if (mAnimation != null) {
+                mAnimation.setListener(null);
+                mAnimation = null;
+            }
+            if (mMetricsSession != null) {
+                mMetricsTracker.end(mMetricsSession, mCancelled);
+                mMetricsSession = null;
+            }
+            mCancelled = false;
+        }
+    }
+
+    private RemoveListener obtainRemoveListener(ViewHolder holder) {
+        int size = mRemoveListenerPool.size();
+        RemoveListener listener = size > 0
+                ? mRemoveListenerPool.remove(size - 1)
+                : new RemoveListener();
+        listener.mHolder = holder;
+        return listener;
+    }
+
+    private AddListener obtainAddListener(ViewHolder holder) {
+        int size = mAddListenerPool.size();
+        AddListener listener = size > 0 ? mAddListenerPool.remove(size - 1) : new AddListener();
+        listener.mHolder = holder;
+        return listener;
+    }
+
+    private MoveListener obtainMoveListener(ViewHolder holder, int deltaX, int deltaY) {
+        int size = mMoveListenerPool.size();
+        MoveListener listener = size > 0 ? mMoveListenerPool.remove(size - 1) : new MoveListener();
+        listener.mHolder = holder;
+        listener.mDeltaX = deltaX;
+        listener.mDeltaY = deltaY;
+        return listener;
+    }
+
+    private ChangeListener obtainChangeListener(ViewHolder holder, boolean oldItem) {
+        int size = mChangeListenerPool.size();
+        ChangeListener listener = size > 0
+                ? mChangeListenerPool.remove(size - 1)
+                : new ChangeListener();
+        listener.mHolder = holder;
+        listener.mOldItem = oldItem;
+        return listener;
+    }
+
+    private class RemoveListener extends AnimationListener {
+        private ViewHolder mHolder;
+
+        RemoveListener() {
+            super("card_remove");
+        }
+
+        @Override
+        public void onAnimationStart(View view) {
+            dispatchRemoveStarting(mHolder);
+        }
+
+        @Override
+        public void onAnimationEnd(View view) {
+            ViewHolder holder = mHolder;
+            detach();
+            mHolder = null;
+            mRemoveListenerPool.add(this);
+            ViewCompat.setAlpha(view, 1);
+            // The view may have been swiped away
+            ViewCompat.setTranslationX(view, 0);
+            dispatchRemoveFinished(holder);
+            untrackRunning(holder);
+            dispatchFinishedWhenDone();
+        }
+    }
+
+    private class AddListener extends AnimationListener {
+        private ViewHolder mHolder;
+
+        AddListener() {
+            super("card_add");
+        }
+
+        @Override
+        public void onAnimationStart(View view) {
+            dispatchAddStarting(mHolder);
+        }
+
+        @Override
+        public void onAnimationCancel(View view) {
+            super.onAnimationCancel(view);
+            ViewCompat.setAlpha(view, 1);
+        }
+
+        @Override
+        public void onAnimationEnd(View view) {
+            ViewHolder holder = mHolder;
+            detach();
+            mHolder = null;
+            mAddListenerPool.add(this);
+            mAddAnimationCount--;
+            dispatchAddFinished(holder);
+            untrackRunning(holder);
+            dispatchFinishedWhenDone();
+        }
+    }
+
+    private class MoveListener extends AnimationListener {
+        private ViewHolder mHolder;
+        private int mDeltaX;
+        private int mDeltaY;
+
+        MoveListener() {
+            super("card_move");
+        }
+
+        @Override
+        public void onAnimationStart(View view) {
+            dispatchMoveStarting(mHolder);
+        }
+
+        @Override
+        public void onAnimationCancel(View view) {
+            super.onAnimationCancel(view);
+            if (mDeltaX != 0) {
+                ViewCompat.setTranslationX(view, 0);
+            }
+            if (mDeltaY != 0) {
+                ViewCompat.setTranslationY(view, 0);
+            }
+        }
+
+        @Override
+        public void onAnimationEnd(View view) {
+            ViewHolder holder = mHolder;
+            detach();
+            mHolder = null;
+            mMoveListenerPool.add(this);
+            dispatchMoveFinished(holder);
+            untrackRunning(holder);
+            dispatchFinishedWhenDone();
+        }
+    }
+
+    private class ChangeListener extends AnimationListener {
+        private ViewHolder mHolder;
+        private boolean mOldItem;
+
+        ChangeListener() {
+            super("card_change");
+        }
+
+        @Override
+        public void onAnimationStart(View view) {
+            dispatchChangeStarting(mHolder, mOldItem);
+        }
+
+        @Override
+        public void onAnimationEnd(View view) {
+            ViewHolder holder = mHolder;
+            boolean oldItem = mOldItem;
+            detach();
+            mHolder = null;
+            mChangeListenerPool.add(this);
+            ViewCompat.setAlpha(view, 1);
+            ViewCompat.setTranslationX(view, 0);
+            ViewCompat.setTranslationY(view, 0);
+            dispatchChangeFinished(holder, oldItem);
+            untrackRunning(holder);
+            dispatchFinishedWhenDone();
+        }
+    }
 }
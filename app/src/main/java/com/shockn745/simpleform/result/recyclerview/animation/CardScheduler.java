@@ -1,20 +1,29 @@
 package com.shockn745.simpleform.result.recyclerview.animation;
 
-import android.app.Activity;
 import android.os.Handler;
+import android.os.SystemClock;
 import android.support.design.widget.Snackbar;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
 import android.view.View;
 
+import com.shockn745.simpleform.AnimResources;
+import com.shockn745.simpleform.MotionPolicy;
 import com.shockn745.simpleform.R;
 import com.shockn745.simpleform.result.recyclerview.Card;
 import com.shockn745.simpleform.result.recyclerview.CardAdapter;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 
 /**
  * Class that schedules cards one after the other to display them in a fluid motion.
  * Also directly cache cards previously masked
  *
+ * The scheduled cards are kept in a queue drained by a single message (or frame callback) at a
+ * time : however many cards are scheduled, at most one message is in the main looper queue, and
+ * pausing or cancelling only has to remove that message.
+ *
  * @author Kempenich Florian
  */
 public class CardScheduler {
@@ -25,6 +34,31 @@ public class CardScheduler {
     private final Handler mHandler;
     private final View mView;
 
+    // Cards waiting to be displayed, followed by the hint if mHintPending
+    private final ArrayDeque<Card> mQueue = new ArrayDeque<>();
+    private boolean mHintPending = false;
+    private boolean mPaused = false;
+    private boolean mMessageInFlight = false;
+    // Uptime at which the next card is due
+    private long mNextDueTime;
+    private final Runnable mDrainRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mMessageInFlight = false;
+            drain();
+        }
+    };
+
+    // Duration of a frame in ms, > 0 when cards due in the same frame are added together
+    private float mCoalesceFrameDuration = 0;
+    private final ArrayList<Card> mBatch = new ArrayList<>();
+
+    // Not null when cards are released on frame boundaries
+    private FrameStagger mFrameStagger;
+
+    // When true, only the cards that fit on screen are staggered
+    private boolean mVisibleFirst = false;
+
     /**
      * Create a new CardScheduler
      * @param cardAdapter Adapter to hold the cards
@@ -38,37 +72,227 @@ public class CardScheduler {
 
     }
 
+    /**
+     * Enable or disable coalescing : when enabled, all the cards due during the same frame are
+     * added with a single range insertion (so a single layout pass) instead of one by one.
+     * Useful when addDuration is short compared to the duration of a frame.
+     * @param coalesce true to enable
+     */
+    public void setCoalesceCardsPerFrame(boolean coalesce) {
+        if (coalesce) {
+            float refreshRate = getRefreshRate();
+            mCoalesceFrameDuration = 1000f / (refreshRate > 0 ? refreshRate : 60f);
+        } else {
+            mCoalesceFrameDuration = 0;
+        }
+    }
+
+    /**
+     * Release the cards on frame boundaries instead of using delayed messages.
+     * Each card is released on the frame closest to its due time, a late frame doesn't delay
+     * the following cards.
+     * @param frameClock Source of frames (usually {@link ChoreographerFrameClock#getInstance()}),
+     *                   or null to use delayed messages
+     */
+    public void setFrameClock(FrameClock frameClock) {
+        stopDraining();
+        if (frameClock == null) {
+            mFrameStagger = null;
+        } else {
+            mFrameStagger = new FrameStagger(
+                    frameClock,
+                    mAddDuration,
+                    getRefreshRate(),
+                    new FrameStagger.Listener() {
+                        @Override
+                        public void onRelease(int index) {
+                            releaseNext();
+                        }
+                    });
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * Enable or disable the visible-first mode : only the cards that fit on screen are displayed
+     * one after the other, the remaining ones are then inserted at once, without animation
+     * since they are off-screen. The time to display everything doesn't depend on the number of
+     * cards anymore.
+     * @param visibleFirst true to enable
+     */
+    public void setVisibleFirst(boolean visibleFirst) {
+        mVisibleFirst = visibleFirst;
+    }
+
     public void addCardToList(Card cardToAdd) {
         pendingCards.add(cardToAdd);
     }
 
     /**
      * Display cards one after the other
+     * Then display the hint
      */
     public void displayPendingCards() {
-        int i = 1;
-        for (final Card card : pendingCards) {
-            mHandler.postDelayed(new Runnable() {
-                @Override
-                public void run() {
-                    mAdapter.addCard(card);
-                }
-            }, mAddDuration * i);
+        boolean idle = mQueue.isEmpty() && !mHintPending;
+        int added = pendingCards.size();
+        mQueue.addAll(pendingCards);
+        pendingCards.clear();
+        boolean hintAdded = !mHintPending;
+        mHintPending = true;
 
-            i++;
+        if (idle) {
+            mNextDueTime = SystemClock.uptimeMillis() + mAddDuration;
+        }
+        if (mFrameStagger != null && mFrameStagger.isRunning()) {
+            // Appended to the releases in progress
+            mFrameStagger.start(added + (hintAdded ? 1 : 0));
+        } else {
+            scheduleDrain();
         }
+    }
+
+    /**
+     * Stop displaying cards until {@link #resume()}. The scheduled cards are kept.
+     * Call from Activity.onPause.
+     */
+    public void pause() {
+        mPaused = true;
+        stopDraining();
+    }
+
+    /**
+     * Resume displaying cards, the next one after one addDuration.
+     * Call from Activity.onResume.
+     */
+    public void resume() {
+        mPaused = false;
+        mNextDueTime = SystemClock.uptimeMillis() + mAddDuration;
+        scheduleDrain();
+    }
+
+    /**
+     * Drop every card not displayed yet, and the hint.
+     * Call from Activity.onDestroy : nothing is retained afterwards.
+     */
+    public void cancel() {
+        stopDraining();
         pendingCards.clear();
+        mQueue.clear();
+        mHintPending = false;
+    }
+
+    /**
+     * Post the single message (or start the frame stagger) if there is something to display
+     */
+    private void scheduleDrain() {
+        if (mPaused || (mQueue.isEmpty() && !mHintPending)) {
+            return;
+        }
+        if (mFrameStagger != null) {
+            if (!mFrameStagger.isRunning()) {
+                // The display may have changed its refresh rate since the last cards
+                mFrameStagger.setRefreshRate(getRefreshRate());
+                mFrameStagger.start(mQueue.size() + (mHintPending ? 1 : 0));
+            }
+        } else if (!mMessageInFlight) {
+            mMessageInFlight = true;
+            mHandler.postAtTime(mDrainRunnable, mNextDueTime);
+        }
+    }
+
+    private void stopDraining() {
+        mHandler.removeCallbacks(mDrainRunnable);
+        mMessageInFlight = false;
+        if (mFrameStagger != null) {
+            mFrameStagger.cancel();
+        }
+    }
+
+    /**
+     * Display the cards due, then post the message for the next ones
+     */
+    private void drain() {
+        long now = SystemClock.uptimeMillis();
+        if (mCoalesceFrameDuration > 0 && !mQueue.isEmpty()) {
+            // Add every card due before the end of this frame at once
+            long frameEnd = now + (long) mCoalesceFrameDuration;
+            while (!mQueue.isEmpty() && mNextDueTime <= frameEnd) {
+                mBatch.add(mQueue.poll());
+                mNextDueTime += mAddDuration;
+            }
+            mAdapter.addCards(mBatch);
+            mBatch.clear();
+            mNextDueTime = Math.max(mNextDueTime, frameEnd);
+        } else {
+            releaseNext();
+            // Spaced from the actual release : a late message doesn't make the next card bunch up
+            mNextDueTime = now + mAddDuration;
+        }
+        scheduleDrain();
+    }
 
-        // Display hint
-        mHandler.postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                Snackbar.make(
-                        mView,
-                        R.string.snackbar,
-                        Snackbar.LENGTH_SHORT
-                ).show();
+    /**
+     * Display the next card, or the hint after the last card
+     */
+    private void releaseNext() {
+        if (!mQueue.isEmpty() && (!MotionPolicy.get(mView.getContext()).isFullMotion()
+                || (mVisibleFirst && isScreenFull()))) {
+            // Reduced motion or off-screen : insert the rest at once
+            mAdapter.addCards(mQueue);
+            mQueue.clear();
+            if (mFrameStagger != null) {
+                // Only the hint is left to release
+                mFrameStagger.setRemaining(mHintPending ? 1 : 0);
             }
-        }, mAddDuration * i);
+            return;
+        }
+        Card card = mQueue.poll();
+        if (card != null) {
+            mAdapter.addCard(card);
+        } else if (mHintPending) {
+            mHintPending = false;
+            displayHint();
+        }
+    }
+
+    /**
+     * Check if the cards already displayed fill the screen
+     * @return true if the next card would be off-screen
+     */
+    private boolean isScreenFull() {
+        int itemCount = mAdapter.getItemCount();
+        if (mView instanceof RecyclerView) {
+            RecyclerView.LayoutManager layoutManager = ((RecyclerView) mView).getLayoutManager();
+            if (layoutManager instanceof LinearLayoutManager) {
+                // Some cards are already laid out below the screen
+                int lastVisible = ((LinearLayoutManager) layoutManager)
+                        .findLastVisibleItemPosition();
+                if (lastVisible != RecyclerView.NO_POSITION && lastVisible < itemCount - 1) {
+                    return true;
+                }
+            }
+        }
+
+        // Cards may not be laid out yet : compare with the number of cards fitting on screen
+        int height = mView.getHeight();
+        if (height == 0) {
+            height = AnimResources.get(mView.getContext()).getScreenHeight();
+        }
+        int cardHeight = mView.getResources().getDimensionPixelSize(R.dimen.card_height)
+                + 2 * mView.getResources().getDimensionPixelSize(R.dimen.card_margin);
+        int visibleCards = (height + cardHeight - 1) / cardHeight;
+        return itemCount >= visibleCards;
+    }
+
+    private float getRefreshRate() {
+        return AnimResources.get(mView.getContext()).getRefreshRate();
+    }
+
+    private void displayHint() {
+        Snackbar.make(
+                mView,
+                R.string.snackbar,
+                Snackbar.LENGTH_SHORT
+        ).show();
     }
 }
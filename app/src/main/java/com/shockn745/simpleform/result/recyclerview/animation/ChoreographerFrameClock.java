@@ -0,0 +1,109 @@
+package com.shockn745.simpleform.result.recyclerview.animation;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+
+/**
+ * {@link FrameClock} synchronised with the display.
+ * API >= 16 : Choreographer frame callbacks (vsync)
+ * API < 16 : Handler messages every 16ms
+ *
+ * All the callbacks posted for a frame are dispatched by a single Choreographer callback, and
+ * the lists holding them are reused : no allocation once running.
+ * Must only be used from the main thread.
+ *
+ * @author Florian Kempenich
+ */
+public class ChoreographerFrameClock implements FrameClock {
+
+    private static final long FALLBACK_FRAME_DELAY = 16;
+
+    private static ChoreographerFrameClock sInstance;
+
+    private ArrayList<FrameCallback> mPending = new ArrayList<>();
+    private ArrayList<FrameCallback> mDispatching = new ArrayList<>();
+    private boolean mFrameRequested = false;
+
+    private final Object mChoreographerCallback;
+    private final Handler mHandler;
+    private final Runnable mFallbackCallback = new Runnable() {
+        @Override
+        public void run() {
+            dispatchFrame(System.nanoTime());
+        }
+    };
+
+    /**
+     * @return The frame clock of the main thread
+     */
+    public static ChoreographerFrameClock getInstance() {
+        if (sInstance == null) {
+            sInstance = new ChoreographerFrameClock();
+        }
+        return sInstance;
+    }
+
+    private ChoreographerFrameClock() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            mChoreographerCallback = createChoreographerCallback();
+            mHandler = null;
+        } else {
+            mChoreographerCallback = null;
+            mHandler = new Handler();
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private Object createChoreographerCallback() {
+        return new Choreographer.FrameCallback() {
+            @Override
+            public void doFrame(long frameTimeNanos) {
+                dispatchFrame(frameTimeNanos);
+            }
+        };
+    }
+
+    @Override
+    public void postFrameCallback(FrameCallback callback) {
+        mPending.add(callback);
+        if (!mFrameRequested) {
+            mFrameRequested = true;
+            requestFrame();
+        }
+    }
+
+    @Override
+    public void removeFrameCallback(FrameCallback callback) {
+        // A callback can be posted several times
+        while (mPending.remove(callback)) {
+            // Keep removing
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private void requestFrame() {
+        if (mChoreographerCallback != null) {
+            Choreographer.getInstance().postFrameCallback(
+                    (Choreographer.FrameCallback) mChoreographerCallback
+            );
+        } else {
+            mHandler.postDelayed(mFallbackCallback, FALLBACK_FRAME_DELAY);
+        }
+    }
+
+    private void dispatchFrame(long frameTimeNanos) {
+        mFrameRequested = false;
+        // Swap the lists : callbacks posted during the dispatch are for the next frame
+        ArrayList<FrameCallback> dispatching = mPending;
+        mPending = mDispatching;
+        mDispatching = dispatching;
+        for (int i = 0; i < dispatching.size(); i++) {
+            dispatching.get(i).doFrame(frameTimeNanos);
+        }
+        dispatching.clear();
+    }
+}
@@ -0,0 +1,33 @@
+package com.shockn745.simpleform.result.recyclerview.animation;
+
+/**
+ * Source of frame callbacks.
+ * Abstracts the Choreographer so that frame-driven code can run on the JVM with a
+ * {@link VirtualFrameClock}.
+ *
+ * @author Florian Kempenich
+ */
+public interface FrameClock {
+
+    /**
+     * Called once per frame
+     */
+    interface FrameCallback {
+        /**
+         * @param frameTimeNanos Time at which the frame started rendering, in nanoseconds
+         */
+        void doFrame(long frameTimeNanos);
+    }
+
+    /**
+     * Call the callback once, on the next frame
+     * @param callback Callback to call
+     */
+    void postFrameCallback(FrameCallback callback);
+
+    /**
+     * Remove a callback posted with {@link #postFrameCallback(FrameCallback)}
+     * @param callback Callback to remove
+     */
+    void removeFrameCallback(FrameCallback callback);
+}
@@ -0,0 +1,162 @@
+package com.shockn745.simpleform.result.recyclerview.animation;
+
+/**
+ * Releases items one after the other, on frame boundaries.
+ *
+ * Each item is due one stagger after the previous one was due, counted from the frame times :
+ * a late frame delays a single item, the following ones are still due on schedule. An item is
+ * released on the frame closest to its due time, whatever the refresh rate of the display
+ * (60/90/120 Hz). At most one item is released per frame : after a stall longer than the
+ * stagger, the schedule restarts from the late frame instead of releasing a burst of items.
+ *
+ * Only depends on a {@link FrameClock} : runs on the JVM with a {@link VirtualFrameClock}.
+ *
+ * @author Florian Kempenich
+ */
+public class FrameStagger implements FrameClock.FrameCallback {
+
+    /**
+     * Notified when an item is released
+     */
+    public interface Listener {
+        /**
+         * @param index Index of the released item, from 0 to count - 1
+         */
+        void onRelease(int index);
+    }
+
+    // Frames longer than this ratio of the frame interval are counted as late
+    private static final float LATE_FRAME_RATIO = 1.5f;
+
+    private final FrameClock mFrameClock;
+    private final long mStaggerNanos;
+    private final Listener mListener;
+
+    private float mFrameIntervalNanos;
+    private long mLastFrameTimeNanos = 0;
+    // Frame time at which the next item is due, 0 before the first frame
+    private long mNextDueNanos = 0;
+    private int mNextIndex = 0;
+    private int mCount = 0;
+    private boolean mRunning = false;
+    private int mLateFrames = 0;
+
+    /**
+     * Create a new FrameStagger
+     * @param frameClock Source of frames
+     * @param staggerMillis Requested delay between two items
+     * @param refreshRate Refresh rate of the display, in frames per second
+     * @param listener Notified for each released item
+     */
+    public FrameStagger(FrameClock frameClock,
+                        long staggerMillis,
+                        float refreshRate,
+                        Listener listener) {
+        mFrameClock = frameClock;
+        mStaggerNanos = staggerMillis * 1000000L;
+        mListener = listener;
+        setRefreshRate(refreshRate);
+    }
+
+    /**
+     * Set the refresh rate of the display, e.g. after it has changed.
+     * The frame interval is never derived from the measured frames : late frames must not
+     * slow down the stagger.
+     * @param refreshRate Refresh rate given by Display.getRefreshRate()
+     */
+    public void setRefreshRate(float refreshRate) {
+        mFrameIntervalNanos = 1e9f / (refreshRate > 0 ? refreshRate : 60f);
+    }
+
+    /**
+     * Release count items, the first one after one stagger
+     * If already running, the new items are appended.
+     * @param count Number of items to release
+     */
+    public void start(int count) {
+        mCount += count;
+        if (!mRunning && mNextIndex < mCount) {
+            mRunning = true;
+            mLastFrameTimeNanos = 0;
+            mNextDueNanos = 0;
+            mFrameClock.postFrameCallback(this);
+        }
+    }
+
+    /**
+     * Stop releasing items. The remaining ones are dropped.
+     */
+    public void cancel() {
+        mFrameClock.removeFrameCallback(this);
+        mRunning = false;
+        mNextIndex = 0;
+        mCount = 0;
+    }
+
+    /**
+     * Change the number of items left to release. Can be called from {@link Listener#onRelease}.
+     * @param remaining Number of items still to release
+     */
+    public void setRemaining(int remaining) {
+        mCount = mNextIndex + remaining;
+    }
+
+    public boolean isRunning() {
+        return mRunning;
+    }
+
+    /**
+     * @return Frame interval of the display, in nanoseconds
+     */
+    public float getFrameIntervalNanos() {
+        return mFrameIntervalNanos;
+    }
+
+    /**
+     * @return Number of late frames seen so far
+     */
+    public int getLateFrames() {
+        return mLateFrames;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!mRunning) {
+            return;
+        }
+        if (mNextIndex >= mCount) {
+            // Nothing left since setRemaining
+            mRunning = false;
+            mNextIndex = 0;
+            mCount = 0;
+            return;
+        }
+
+        if (mLastFrameTimeNanos != 0
+                && frameTimeNanos - mLastFrameTimeNanos > mFrameIntervalNanos * LATE_FRAME_RATIO) {
+            mLateFrames++;
+        }
+        mLastFrameTimeNanos = frameTimeNanos;
+
+        if (mNextDueNanos == 0) {
+            // First frame : the first item is due one stagger later
+            mNextDueNanos = frameTimeNanos + mStaggerNanos;
+        } else if (frameTimeNanos >= mNextDueNanos - mFrameIntervalNanos / 2) {
+            // Closest frame to the due time
+            mListener.onRelease(mNextIndex++);
+            mNextDueNanos += mStaggerNanos;
+            if (mNextDueNanos <= frameTimeNanos) {
+                // Stalled for more than a stagger : don't release the late items in a burst
+                mNextDueNanos = frameTimeNanos + mStaggerNanos;
+            }
+        }
+
+        if (mNextIndex < mCount) {
+            mFrameClock.postFrameCallback(this);
+        } else {
+            mRunning = false;
+            mNextIndex = 0;
+            mCount = 0;
+        }
+    }
+}
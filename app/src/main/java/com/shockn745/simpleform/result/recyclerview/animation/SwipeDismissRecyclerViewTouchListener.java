@@ -3,7 +3,6 @@ package com.shockn745.simpleform.result.recyclerview.animation;
 import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
 import android.app.Activity;
-import android.graphics.Rect;
 import android.os.Handler;
 import android.os.SystemClock;
 import android.support.v7.widget.RecyclerView;
@@ -14,6 +13,11 @@ import android.view.ViewConfiguration;
 import android.widget.AbsListView;
 import android.widget.ListView;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import com.shockn745.simpleform.AnimResources;
+
 /**
  * A {@link View.OnTouchListener} that makes the list items in a {@link ListView}
  * dismissable. {@link ListView} is given special treatment because by default it handles touches
@@ -66,12 +70,149 @@ public class SwipeDismissRecyclerViewTouchListener implements View.OnTouchListen
     private float mDownY;
     private boolean mSwiping;
     private int mSwipingSlop;
+    // Obtained once, cleared at the start of each gesture
     private VelocityTracker mVelocityTracker;
+    // True between a down event on a card and the end of the gesture
+    private boolean mTracking;
     private int mDownPosition;
     private View mDownView;
     private boolean mPaused;
     private boolean mDismissAnimationRunning;
 
+
+    // Reused by every gesture : nothing is allocated while the finger is down
+    // Card being dismissed, only one at a time
+    private View mDismissView;
+    private int mDismissPosition;
+    // Card to reset after the remove animation of the RecyclerView
+    private View mResetView;
+    // Sent to the RecyclerView after a dismiss, obtained on first use
+    private MotionEvent mCancelEvent;
+
+    // Pipelined mode : several cards can be dismissed in quick succession
+    private boolean mPipelined = false;
+    // Dismiss animations running, pipelined mode only
+    private final ArrayList<DismissListener> mDismissesInFlight = new ArrayList<>();
+    private final ArrayList<DismissListener> mDismissListenerPool = new ArrayList<>();
+    // Adapter positions of the cards swiped out, waiting to be removed in one batch. Also passed
+    // to DismissCallbacks#onDismissBatch, grown when needed.
+    // Positions and not views : a card can scroll off & its view be recycled before the batch
+    private int[] mDismissedPositions = new int[4];
+    private int mDismissedCount = 0;
+    // Observed adapter, pipelined mode only
+    private RecyclerView.Adapter mObservedAdapter;
+    private final Runnable mFlushDismissesRunnable = new Runnable() {
+        @Override
+        public void run() {
+            flushDismisses();
+        }
+    };
+
+    // Keeps the positions of the dismissed cards up to date with the changes of the adapter
+    private final RecyclerView.AdapterDataObserver mPositionObserver =
+            new RecyclerView.AdapterDataObserver() {
+        @Override
+        public void onChanged() {
+            // Every position is unknown : the dismissals are dropped
+            for (int i = 0; i < mDismissesInFlight.size(); i++) {
+                mDismissesInFlight.get(i).mPosition = RecyclerView.NO_POSITION;
+            }
+            mDismissedCount = 0;
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            offsetDismissedPositions(positionStart, itemCount, 0, 0);
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            offsetDismissedPositions(0, 0, positionStart, itemCount);
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            for (int i = 0; i < mDismissesInFlight.size(); i++) {
+                DismissListener listener = mDismissesInFlight.get(i);
+                listener.mPosition = movePosition(
+                        listener.mPosition, fromPosition, toPosition, itemCount);
+            }
+            for (int i = 0; i < mDismissedCount; i++) {
+                mDismissedPositions[i] = movePosition(
+                        mDismissedPositions[i], fromPosition, toPosition, itemCount);
+            }
+        }
+    };
+
+    // A recycled view may be rebound to another card : it is no longer the dismissed card
+    private final RecyclerView.RecyclerListener mRecyclerListener =
+            new RecyclerView.RecyclerListener() {
+        @Override
+        public void onViewRecycled(RecyclerView.ViewHolder holder) {
+            View view = holder.itemView;
+            for (int i = 0; i < mDismissesInFlight.size(); i++) {
+                DismissListener listener = mDismissesInFlight.get(i);
+                if (listener.mView == view) {
+                    // The dismissal itself goes on, by position
+                    view.animate().cancel();
+                    listener.finish();
+                    break;
+                }
+            }
+            view.setTranslationX(0);
+            view.setAlpha(1);
+        }
+    };
+
+    // Not null when the swiped card is updated once per frame instead of once per move event
+    private FrameClock mFrameClock;
+    // Latest horizontal distance of the finger, applied on the next frame
+    private float mPendingDeltaX;
+    private boolean mFramePosted = false;
+
+    private final FrameClock.FrameCallback mSwipeFrameCallback = new FrameClock.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mFramePosted = false;
+            if (mSwiping && mDownView != null) {
+                applySwipe(mPendingDeltaX);
+            }
+        }
+    };
+
+    private final AnimatorListenerAdapter mDismissListener = new AnimatorListenerAdapter() {
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            View dismissView = mDismissView;
+            mDismissView = null;
+            performDismiss(dismissView, mDismissPosition);
+            if (isItemAnimatorInterruptible()) {
+                // Remove animation can be interrupted : accept touch right away
+                mDismissAnimationRunning = false;
+                return;
+            }
+            // Delay reset mDismissAnimationRunning to prevent swipe
+            // between dismiss & remove animations
+            mHandler.postDelayed(mEndDismissRunnable, mRecyclerViewRemoveAnimationDuration);
+        }
+    };
+
+    private final Runnable mEndDismissRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mDismissAnimationRunning = false;
+        }
+    };
+
+    private final Runnable mResetViewRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mResetView.setAlpha(1f);
+            mResetView.setTranslationX(0);
+            mResetView = null;
+        }
+    };
+
     // Properties for the OnScrollListener & LayoutManager
     private final Activity mActivity;
     private int mCurrentTranslationY;
@@ -94,6 +235,17 @@ public class SwipeDismissRecyclerViewTouchListener implements View.OnTouchListen
          * @param position      Position of the item to dismiss
          */
         void onDismiss(RecyclerView recyclerView, int position);
+
+        /**
+         * Called in pipelined mode, when the user has dismissed one or more list items
+         *
+         * @param recyclerView           The originating {@link RecyclerView}.
+         * @param reverseSortedPositions Distinct positions of the items to dismiss, in
+         *                               descending order. Only the first count elements are
+         *                               valid, the array is reused.
+         * @param count                  Number of items to dismiss
+         */
+        void onDismissBatch(RecyclerView recyclerView, int[] reverseSortedPositions, int count);
     }
 
     /**
@@ -112,8 +264,7 @@ public class SwipeDismissRecyclerViewTouchListener implements View.OnTouchListen
         mSlop = vc.getScaledTouchSlop();
         mMinFlingVelocity = vc.getScaledMinimumFlingVelocity() * 16;
         mMaxFlingVelocity = vc.getScaledMaximumFlingVelocity();
-        mAnimationTime = recyclerView.getContext().getResources().getInteger(
-                android.R.integer.config_shortAnimTime);
+        mAnimationTime = AnimResources.get(recyclerView.getContext()).getShortAnimTime();
         mRecyclerView = recyclerView;
         mDismissCallbacks = callbacks;
         mHandler = new Handler();
@@ -125,6 +276,48 @@ public class SwipeDismissRecyclerViewTouchListener implements View.OnTouchListen
         }
     }
 
+    /**
+     * Enable or disable the pipelined mode : touch isn't locked during a dismiss animation, so
+     * several cards can be swiped in quick succession. The dismissed cards are removed together
+     * with {@link DismissCallbacks#onDismissBatch(RecyclerView, int[], int)} once every dismiss
+     * animation has ended and no card is being swiped.
+     *
+     * The item animator is expected to reset the removed views (as {@link CardAnimator} does).
+     * The adapter must be set before enabling this mode : the listener observes it, and replaces
+     * the {@link RecyclerView.RecyclerListener} of the RecyclerView.
+     * @param pipelined true to enable
+     */
+    public void setPipelinedDismiss(boolean pipelined) {
+        if (pipelined == mPipelined) {
+            return;
+        }
+        mPipelined = pipelined;
+        if (pipelined) {
+            mObservedAdapter = mRecyclerView.getAdapter();
+            if (mObservedAdapter == null) {
+                throw new IllegalStateException("Set the adapter before the pipelined mode");
+            }
+            mObservedAdapter.registerAdapterDataObserver(mPositionObserver);
+            mRecyclerView.setRecyclerListener(mRecyclerListener);
+        } else {
+            mObservedAdapter.unregisterAdapterDataObserver(mPositionObserver);
+            mObservedAdapter = null;
+            mRecyclerView.setRecyclerListener(null);
+        }
+    }
+
+    /**
+     * Update the swiped card once per frame : on touch panels reporting moves faster than the
+     * display refreshes, only the latest position of each frame is applied.
+     * The fling velocity still uses every sample, historical ones included.
+     * @param frameClock Source of frames (usually {@link ChoreographerFrameClock#getInstance()}),
+     *                   or null to update the card on each move event
+     */
+    public void setFrameClock(FrameClock frameClock) {
+        cancelSwipeFrame();
+        mFrameClock = frameClock;
+    }
+
     /**
      * Enables or disables (pauses or resumes) watching for swipe-to-dismiss gestures.
      *
@@ -165,7 +358,7 @@ public class SwipeDismissRecyclerViewTouchListener implements View.OnTouchListen
         switch (motionEvent.getActionMasked()) {
             case MotionEvent.ACTION_DOWN: {
                 // Prevent scrolling if animation is running
-                if (mDismissAnimationRunning || isAddRemoveAnimationRunning()) {
+                if (isTouchLocked()) {
                     return true;
                 }
                 if (mPaused) {
@@ -175,33 +368,34 @@ public class SwipeDismissRecyclerViewTouchListener implements View.OnTouchListen
                 // TODO EXTERNAL : ensure this is a finger, and set a flag
 
                 // Find the child view that was touched (perform a hit test)
-                // cf : http://stackoverflow.com/questions/13296162/what-is-the-definition-of-the-value-supplied-by-the-android-function-view-gethit
-                Rect rect = new Rect();
-                int[] listViewCoords = new int[2];
-                mRecyclerView.getLocationOnScreen(listViewCoords);
-                int x = (int) motionEvent.getRawX() - listViewCoords[0];
-                int y = (int) motionEvent.getRawY() - listViewCoords[1];
-                View child;
-                int childCount = mRecyclerView.getChildCount();
-                for (int i = 0; i < childCount; i++) {
-                    child = mRecyclerView.getChildAt(i);
-                    child.getHitRect(rect);
-                    if (rect.contains(x, y)) {
-                        mDownView = child;
-                        break;
+                // The event is in the coordinates of the RecyclerView : let it do the lookup,
+                // translations of the animated cards included
+                mDownView = mRecyclerView.findChildViewUnder(motionEvent.getX(), motionEvent.getY());
+
+                // Cards being removed have no adapter position : they can't be swiped
+                // Cards already swiped out can't be dismissed twice
+                if (mDownView != null) {
+                    int position = mRecyclerView.getChildAdapterPosition(mDownView);
+                    if (position == RecyclerView.NO_POSITION || isDismissed(position)) {
+                        mDownView = null;
                     }
                 }
 
                 if (mDownView != null) {
                     mDownX = motionEvent.getRawX();
                     mDownY = motionEvent.getRawY();
-                    mDownPosition = mRecyclerView.getChildPosition(mDownView);
+                    mDownPosition = mRecyclerView.getChildAdapterPosition(mDownView);
 
                     // Helper for tracking the velocity of touch events, for implementing
                     // flinging and other such gestures
                     // cf : Doc VelocityTracker
-                    mVelocityTracker = VelocityTracker.obtain();
+                    if (mVelocityTracker == null) {
+                        mVelocityTracker = VelocityTracker.obtain();
+                    } else {
+                        mVelocityTracker.clear();
+                    }
                     mVelocityTracker.addMovement(motionEvent);
+                    mTracking = true;
                 }
                 return false;
             }
@@ -214,10 +408,11 @@ public class SwipeDismissRecyclerViewTouchListener implements View.OnTouchListen
             //
             // cf : http://stackoverflow.com/questions/11960861/what-causes-a-motionevent-action-cancel-in-android
             case MotionEvent.ACTION_CANCEL: {
-                if (mVelocityTracker == null) {
+                if (!mTracking) {
                     break;
                 }
 
+                cancelSwipeFrame();
                 if (mDownView != null && mSwiping) {
                     // Animate view back in initial position
                     mDownView.animate()
@@ -226,21 +421,22 @@ public class SwipeDismissRecyclerViewTouchListener implements View.OnTouchListen
                             .setDuration(mAnimationTime)
                             .setListener(null);
                 }
-                mVelocityTracker.recycle();
-                mVelocityTracker = null;
+                mTracking = false;
                 mDownX = 0;
                 mDownY = 0;
                 mDownView = null;
                 mDownPosition = ListView.INVALID_POSITION;
                 mSwiping = false;
+                scheduleFlushDismisses();
                 break;
             }
 
             case MotionEvent.ACTION_UP: {
-                if (mVelocityTracker == null) {
+                if (!mTracking) {
                     break;
                 }
 
+                cancelSwipeFrame();
                 float deltaX = motionEvent.getRawX() - mDownX;
                 mVelocityTracker.addMovement(motionEvent);
                 mVelocityTracker.computeCurrentVelocity(1000);
@@ -261,59 +457,55 @@ public class SwipeDismissRecyclerViewTouchListener implements View.OnTouchListen
                 if (dismiss
                         && mDownPosition != ListView.INVALID_POSITION
                         && mDismissCallbacks.canDismiss(mDownPosition)) {
-                    // dismiss
-                    final View downView = mDownView; // mDownView gets null'd before animation ends
-                    final int downPosition = mDownPosition;
-                    // Deactivate listener during animation (only one swipe to dismiss at a time)
-                    mDismissAnimationRunning = true;
-                    mDownView.animate()
-                            .translationX(dismissRight ? mViewWidth : -mViewWidth)
-                            .alpha(0)
-                            .setDuration(mAnimationTime)
-                            .setListener(new AnimatorListenerAdapter() {
-                                @Override
-                                public void onAnimationEnd(Animator animation) {
-                                    performDismiss(downView, downPosition);
-                                    // Delay reset mDismissAnimationRunning to prevent swipe
-                                    // between dismiss & remove animations
-                                    mHandler.postDelayed(new Runnable() {
-                                        @Override
-                                        public void run() {
-                                            mDismissAnimationRunning = false;
-                                        }
-                                    }, mRecyclerViewRemoveAnimationDuration);
-                                }
-                            });
-                } else {
-                    // cancel
+                    if (mPipelined) {
+                        // Read again : cards may have been added during the gesture
+                        dismissPipelined(
+                                mDownView,
+                                mRecyclerView.getChildAdapterPosition(mDownView),
+                                dismissRight
+                        );
+                    } else {
+                        // dismiss
+                        // mDownView gets null'd before animation ends
+                        mDismissView = mDownView;
+                        mDismissPosition = mDownPosition;
+                        // Deactivate listener during animation (only one swipe to dismiss at a time)
+                        mDismissAnimationRunning = true;
+                        mDownView.animate()
+                                .translationX(dismissRight ? mViewWidth : -mViewWidth)
+                                .alpha(0)
+                                .setDuration(mAnimationTime)
+                                .setListener(mDismissListener);
+                    }
+                } else if (mSwiping) {
+                    // cancel, a tap didn't move the card
                     mDownView.animate()
                             .translationX(0)
                             .alpha(1)
                             .setDuration(mAnimationTime)
                             .setListener(null);
                 }
-                if (mVelocityTracker != null) {
-                    mVelocityTracker.recycle();
-                    mVelocityTracker = null;
-                }
+                mTracking = false;
                 mDownX = 0;
                 mDownY = 0;
                 mDownView = null;
                 mDownPosition = ListView.INVALID_POSITION;
                 mSwiping = false;
+                scheduleFlushDismisses();
                 break;
             }
 
             case MotionEvent.ACTION_MOVE: {
                 // Prevent scrolling if animation is running
-                if (mDismissAnimationRunning || isAddRemoveAnimationRunning()) {
+                if (isTouchLocked()) {
                     return true;
                 }
-                if (mVelocityTracker == null
+                if (!mTracking
                         || mPaused) {
                     break;
                 }
 
+                // Also adds the historical samples batched in the event
                 mVelocityTracker.addMovement(motionEvent);
                 float deltaX = motionEvent.getRawX() - mDownX;
                 float deltaY = motionEvent.getRawY() - mDownY;
@@ -322,23 +514,33 @@ public class SwipeDismissRecyclerViewTouchListener implements View.OnTouchListen
                     mSwipingSlop = (deltaX > 0 ? mSlop : -mSlop);
                     mRecyclerView.requestDisallowInterceptTouchEvent(true);
 
+                    // The card may still be animated by the item animator : stop it
+                    RecyclerView.ItemAnimator itemAnimator = mRecyclerView.getItemAnimator();
+                    if (itemAnimator != null) {
+                        itemAnimator.endAnimation(mRecyclerView.getChildViewHolder(mDownView));
+                    }
+
                     // Cancel ListView's touch (un-highlighting the item)
-                    MotionEvent cancelEvent = MotionEvent.obtain(motionEvent);
-                    cancelEvent.setAction(MotionEvent.ACTION_CANCEL |
+                    // The event itself is turned into a cancel event, then restored
+                    int action = motionEvent.getAction();
+                    motionEvent.setAction(MotionEvent.ACTION_CANCEL |
                             (motionEvent.getActionIndex()
                                     << MotionEvent.ACTION_POINTER_INDEX_SHIFT));
-                    mRecyclerView.onTouchEvent(cancelEvent);
-                    cancelEvent.recycle();
+                    mRecyclerView.onTouchEvent(motionEvent);
+                    motionEvent.setAction(action);
                 }
 
                 if (mSwiping) {
-                    // Animate the view to follow finger and fade out
-                    mDownView.setTranslationX(deltaX - mSwipingSlop);
-                    mDownView.setAlpha(Math.max(
-                                    0f,
-                                    Math.min(1f,1f - 1f * Math.abs(deltaX) / mViewWidth)
-                            )
-                    );
+                    if (mFrameClock != null) {
+                        // Applied on the next frame, with the latest position
+                        mPendingDeltaX = deltaX;
+                        if (!mFramePosted) {
+                            mFramePosted = true;
+                            mFrameClock.postFrameCallback(mSwipeFrameCallback);
+                        }
+                    } else {
+                        applySwipe(deltaX);
+                    }
                     return true;
                 }
                 break;
@@ -347,6 +549,45 @@ public class SwipeDismissRecyclerViewTouchListener implements View.OnTouchListen
         return false;
     }
 
+    /**
+     * Animate the view to follow finger and fade out
+     * @param deltaX Horizontal distance of the finger since the down event
+     */
+    private void applySwipe(float deltaX) {
+        mDownView.setTranslationX(deltaX - mSwipingSlop);
+        mDownView.setAlpha(Math.max(
+                        0f,
+                        Math.min(1f,1f - 1f * Math.abs(deltaX) / mViewWidth)
+                )
+        );
+    }
+
+    private void cancelSwipeFrame() {
+        if (mFramePosted) {
+            mFramePosted = false;
+            mFrameClock.removeFrameCallback(mSwipeFrameCallback);
+        }
+    }
+
+    /**
+     * Check if touch must be ignored because an animation can't be interrupted
+     * @return true if touch is locked
+     */
+    private boolean isTouchLocked() {
+        return mDismissAnimationRunning
+                || (!isItemAnimatorInterruptible() && isAddRemoveAnimationRunning());
+    }
+
+    /**
+     * Check if the animations of the recyclerview can be interrupted at any time
+     * @return true if the item animator is an interruptible {@link CardAnimator}
+     */
+    private boolean isItemAnimatorInterruptible() {
+        RecyclerView.ItemAnimator itemAnimator = mRecyclerView.getItemAnimator();
+        return itemAnimator instanceof CardAnimator
+                && ((CardAnimator) itemAnimator).isInterruptible();
+    }
+
     /**
      * Check if the built in remove animation of the recyclerview is running
      * @return true if the animation is running
@@ -356,7 +597,199 @@ public class SwipeDismissRecyclerViewTouchListener implements View.OnTouchListen
         return itemAnimator != null && itemAnimator.isRunning();
     }
 
-    private void performDismiss(final View dismissView, final int dismissPosition) {
+    /**
+     * Check if a card has been swiped out in pipelined mode and is not removed yet
+     * @param position Adapter position of the card
+     * @return true if its dismiss animation is running or if it is waiting for the next batch
+     */
+    private boolean isDismissed(int position) {
+        for (int i = 0; i < mDismissesInFlight.size(); i++) {
+            if (mDismissesInFlight.get(i).mPosition == position) {
+                return true;
+            }
+        }
+        for (int i = 0; i < mDismissedCount; i++) {
+            if (mDismissedPositions[i] == position) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Start the dismiss animation of a card, without locking touch
+     * @param view Card to dismiss
+     * @param position Adapter position of the card
+     * @param dismissRight true to animate it to the right
+     */
+    private void dismissPipelined(View view, int position, boolean dismissRight) {
+        int pooled = mDismissListenerPool.size();
+        DismissListener listener = pooled > 0
+                ? mDismissListenerPool.remove(pooled - 1)
+                : new DismissListener();
+        listener.mView = view;
+        listener.mPosition = position;
+        mDismissesInFlight.add(listener);
+        view.animate()
+                .translationX(dismissRight ? mViewWidth : -mViewWidth)
+                .alpha(0)
+                .setDuration(mAnimationTime)
+                .setListener(listener);
+        // Another animation of the view may replace the listener : finished in any case
+        mHandler.postDelayed(listener, mAnimationTime * 2);
+    }
+
+    /**
+     * Update the dismissed positions after an insertion or a removal in the adapter.
+     * The dismissed cards that are removed are dropped.
+     */
+    private void offsetDismissedPositions(int insertStart, int insertCount,
+                                          int removeStart, int removeCount) {
+        for (int i = 0; i < mDismissesInFlight.size(); i++) {
+            DismissListener listener = mDismissesInFlight.get(i);
+            listener.mPosition = offsetPosition(listener.mPosition,
+                    insertStart, insertCount, removeStart, removeCount);
+        }
+        int count = 0;
+        for (int i = 0; i < mDismissedCount; i++) {
+            int position = offsetPosition(mDismissedPositions[i],
+                    insertStart, insertCount, removeStart, removeCount);
+            if (position != RecyclerView.NO_POSITION) {
+                mDismissedPositions[count++] = position;
+            }
+        }
+        mDismissedCount = count;
+    }
+
+    /**
+     * @return The position after the change, {@link RecyclerView#NO_POSITION} if removed
+     */
+    private static int offsetPosition(int position,
+                                      int insertStart, int insertCount,
+                                      int removeStart, int removeCount) {
+        if (position == RecyclerView.NO_POSITION) {
+            return position;
+        }
+        if (position >= insertStart) {
+            position += insertCount;
+        }
+        if (position >= removeStart + removeCount) {
+            position -= removeCount;
+        } else if (position >= removeStart) {
+            position = RecyclerView.NO_POSITION;
+        }
+        return position;
+    }
+
+    /**
+     * @return The position after the move of itemCount items from fromPosition to toPosition
+     */
+    private static int movePosition(int position, int fromPosition, int toPosition,
+                                     int itemCount) {
+        if (position == RecyclerView.NO_POSITION) {
+            return position;
+        }
+        if (position >= fromPosition && position < fromPosition + itemCount) {
+            return position - fromPosition + toPosition;
+        }
+        if (fromPosition < toPosition
+                && position >= fromPosition + itemCount && position < toPosition + itemCount) {
+            return position - itemCount;
+        }
+        if (toPosition < fromPosition && position >= toPosition && position < fromPosition) {
+            return position + itemCount;
+        }
+        return position;
+    }
+
+    /**
+     * Remove the dismissed cards once nothing is in flight : a single batch for all the cards
+     * swiped in quick succession, and no layout change under a card being swiped
+     */
+    private void scheduleFlushDismisses() {
+        if (mDismissedCount == 0 || !mDismissesInFlight.isEmpty() || mTracking) {
+            return;
+        }
+        mHandler.removeCallbacks(mFlushDismissesRunnable);
+        mHandler.post(mFlushDismissesRunnable);
+    }
+
+    private void flushDismisses() {
+        if (!mDismissesInFlight.isEmpty() || mTracking) {
+            // A new dismiss started in the meantime, it will flush again
+            return;
+        }
+        int count = mDismissedCount;
+        if (count == 0) {
+            return;
+        }
+        // Emptied first : the batch changes the adapter, nothing is left to update
+        mDismissedCount = 0;
+        // Descending order : removing a position doesn't shift the next ones
+        Arrays.sort(mDismissedPositions, 0, count);
+        // Distinct positions : each card is removed once
+        int distinct = 1;
+        for (int i = 1; i < count; i++) {
+            if (mDismissedPositions[i] != mDismissedPositions[distinct - 1]) {
+                mDismissedPositions[distinct++] = mDismissedPositions[i];
+            }
+        }
+        count = distinct;
+        for (int i = 0, j = count - 1; i < j; i++, j--) {
+            int tmp = mDismissedPositions[i];
+            mDismissedPositions[i] = mDismissedPositions[j];
+            mDismissedPositions[j] = tmp;
+        }
+        mDismissCallbacks.onDismissBatch(mRecyclerView, mDismissedPositions, count);
+    }
+
+    /**
+     * Listener of a pipelined dismiss animation, recycled when the animation ends.
+     * The dismissal is decided when the finger is lifted : a cancelled animation (e.g. the view
+     * is recycled, or {@link CardAnimator#endAnimation(RecyclerView.ViewHolder)} is called)
+     * still dismisses its card.
+     */
+    private class DismissListener extends AnimatorListenerAdapter implements Runnable {
+        private View mView;
+        // Kept up to date with the changes of the adapter, NO_POSITION if the card is removed
+        private int mPosition;
+
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            finish();
+        }
+
+        @Override
+        public void run() {
+            finish();
+        }
+
+        /**
+         * Queue the card for the next batch, only once : also called when the view is recycled,
+         * as a cancelled animation that hasn't started doesn't notify its listener, and after
+         * twice the duration of the animation
+         */
+        void finish() {
+            if (mView == null) {
+                return;
+            }
+            // The view may be animated again for another card
+            mView.animate().setListener(null);
+            mView = null;
+            mHandler.removeCallbacks(this);
+            mDismissesInFlight.remove(this);
+            if (mPosition != RecyclerView.NO_POSITION) {
+                if (mDismissedCount == mDismissedPositions.length) {
+                    mDismissedPositions = Arrays.copyOf(mDismissedPositions, mDismissedCount * 2);
+                }
+                mDismissedPositions[mDismissedCount++] = mPosition;
+            }
+            mDismissListenerPool.add(this);
+            scheduleFlushDismisses();
+        }
+    }
+
+    private void performDismiss(View dismissView, int dismissPosition) {
         // Animate the dismissed list item to zero-height and fire the dismiss callback when
         // all dismissed list item animations have completed. This triggers layout on each animation
         // frame; in the future we may want to do something smarter and more performant.
@@ -370,19 +803,21 @@ public class SwipeDismissRecyclerViewTouchListener implements View.OnTouchListen
         mDownPosition = ListView.INVALID_POSITION;
 
         // Send a cancel event
-        long time = SystemClock.uptimeMillis();
-        MotionEvent cancelEvent = MotionEvent.obtain(time, time,
-                MotionEvent.ACTION_CANCEL, 0, 0, 0);
-        mRecyclerView.dispatchTouchEvent(cancelEvent);
+        if (mCancelEvent == null) {
+            long time = SystemClock.uptimeMillis();
+            mCancelEvent = MotionEvent.obtain(time, time, MotionEvent.ACTION_CANCEL, 0, 0, 0);
+        }
+        mRecyclerView.dispatchTouchEvent(mCancelEvent);
 
 
+        if (isItemAnimatorInterruptible()) {
+            // The view may be recycled & reused before the delay : CardAnimator resets it
+            return;
+        }
+
         // Reset view presentation after the end of the built in animation of RecyclerView
-        mHandler.postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                dismissView.setAlpha(1f);
-                dismissView.setTranslationX(0);
-            }
-        }, mRecyclerViewRemoveAnimationDuration);
+        // Only one dismiss at a time : the previous reset has already run
+        mResetView = dismissView;
+        mHandler.postDelayed(mResetViewRunnable, mRecyclerViewRemoveAnimationDuration);
     }
 }
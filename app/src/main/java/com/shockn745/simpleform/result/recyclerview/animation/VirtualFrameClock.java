@@ -0,0 +1,82 @@
+package com.shockn745.simpleform.result.recyclerview.animation;
+
+import java.util.ArrayList;
+
+/**
+ * {@link FrameClock} driven manually, to test & benchmark frame-driven code on the JVM.
+ * Frames only happen when {@link #advance(long)} or {@link #runFrames(int, long)} is called.
+ *
+ * @author Florian Kempenich
+ */
+public class VirtualFrameClock implements FrameClock {
+
+    private ArrayList<FrameCallback> mPending = new ArrayList<>();
+    private ArrayList<FrameCallback> mDispatching = new ArrayList<>();
+    private long mTimeNanos;
+    private int mFrameCount = 0;
+
+    /**
+     * @param startTimeNanos Time of the clock before the first frame
+     */
+    public VirtualFrameClock(long startTimeNanos) {
+        mTimeNanos = startTimeNanos;
+    }
+
+    @Override
+    public void postFrameCallback(FrameCallback callback) {
+        mPending.add(callback);
+    }
+
+    @Override
+    public void removeFrameCallback(FrameCallback callback) {
+        while (mPending.remove(callback)) {
+            // Keep removing
+        }
+    }
+
+    /**
+     * Move the time forward and run one frame.
+     * A late frame is simulated with a delta longer than the frame interval.
+     * @param deltaNanos Time elapsed since the previous frame
+     */
+    public void advance(long deltaNanos) {
+        mTimeNanos += deltaNanos;
+        mFrameCount++;
+        ArrayList<FrameCallback> dispatching = mPending;
+        mPending = mDispatching;
+        mDispatching = dispatching;
+        for (int i = 0; i < dispatching.size(); i++) {
+            dispatching.get(i).doFrame(mTimeNanos);
+        }
+        dispatching.clear();
+    }
+
+    /**
+     * Run several frames at a fixed rate
+     * @param frames Number of frames
+     * @param frameIntervalNanos Time between two frames
+     */
+    public void runFrames(int frames, long frameIntervalNanos) {
+        for (int i = 0; i < frames; i++) {
+            advance(frameIntervalNanos);
+        }
+    }
+
+    /**
+     * @return true if a callback is waiting for the next frame
+     */
+    public boolean hasPendingCallbacks() {
+        return !mPending.isEmpty();
+    }
+
+    public long getTimeNanos() {
+        return mTimeNanos;
+    }
+
+    /**
+     * @return Number of frames run so far
+     */
+    public int getFrameCount() {
+        return mFrameCount;
+    }
+}
@@ -0,0 +1,29 @@
+package com.shockn745.simpleform.result.recyclerview.paging;
+
+import com.shockn745.simpleform.result.recyclerview.Card;
+
+import java.util.List;
+
+/**
+ * Source of cards read one page at a time by a {@link PagedCardList}
+ *
+ * @author Florian Kempenich
+ */
+public interface CardDataSource {
+
+    /**
+     * Called once, on the main thread, when the {@link PagedCardList} is created.
+     * Must be cheap : the cards themselves must not be loaded.
+     * @return Total number of cards
+     */
+    int getCount();
+
+    /**
+     * Load a range of cards.
+     * Called on a background thread.
+     * @param start Position of the first card to load
+     * @param count Number of cards to load, never goes past {@link #getCount()}
+     * @return The loaded cards, in order
+     */
+    List<Card> loadRange(int start, int count);
+}
@@ -0,0 +1,178 @@
+package com.shockn745.simpleform.result.recyclerview.paging;
+
+import android.os.AsyncTask;
+import android.util.SparseArray;
+
+import com.shockn745.simpleform.result.recyclerview.Card;
+
+import java.util.List;
+
+/**
+ * List of cards loaded lazily, one fixed-size page at a time, from a {@link CardDataSource}.
+ *
+ * Pages are loaded in the background when a position close to them is accessed, and dropped
+ * when the accessed positions move far away from them, so that the memory used only depends on
+ * the page size and the number of pages kept around, not on the total number of cards.
+ *
+ * Must only be used from the main thread.
+ *
+ * @author Florian Kempenich
+ */
+public class PagedCardList {
+
+    /**
+     * Notified, on the main thread, when a page has been loaded
+     */
+    public interface Callback {
+        void onPageLoaded(int start, int count);
+    }
+
+    private final CardDataSource mDataSource;
+    private final int mCount;
+    private final int mPageSize;
+    private final int mPrefetchDistance;
+    private final int mKeptPages;
+
+    private final SparseArray<List<Card>> mPages = new SparseArray<>();
+    private final SparseArray<LoadPageTask> mLoadingPages = new SparseArray<>();
+    private Callback mCallback;
+    private int mLastAccessedPage = -1;
+
+    /**
+     * Create a new PagedCardList
+     * @param dataSource Source of the cards
+     * @param pageSize Number of cards per page
+     * @param prefetchDistance Distance (in cards) to the next page at which it starts loading
+     * @param keptPages Number of pages kept on each side of the page being accessed
+     */
+    public PagedCardList(CardDataSource dataSource,
+                         int pageSize,
+                         int prefetchDistance,
+                         int keptPages) {
+        mDataSource = dataSource;
+        mCount = dataSource.getCount();
+        mPageSize = pageSize;
+        mPrefetchDistance = prefetchDistance;
+        mKeptPages = keptPages;
+    }
+
+    public void setCallback(Callback callback) {
+        mCallback = callback;
+    }
+
+    /**
+     * @return Total number of cards, whether they are loaded or not
+     */
+    public int size() {
+        return mCount;
+    }
+
+    /**
+     * Get a card, and load the pages around it if needed
+     * @param position Position of the card
+     * @return The card, or null if its page is still loading (a placeholder must be displayed)
+     */
+    public Card get(int position) {
+        loadAround(position);
+        List<Card> page = mPages.get(position / mPageSize);
+        return page == null ? null : page.get(position % mPageSize);
+    }
+
+    /**
+     * Cancel every loading page & drop every loaded page
+     */
+    public void clear() {
+        for (int i = 0; i < mLoadingPages.size(); i++) {
+            mLoadingPages.valueAt(i).cancel(false);
+        }
+        mLoadingPages.clear();
+        mPages.clear();
+        mLastAccessedPage = -1;
+    }
+
+    /**
+     * Load the page of the position, and the next/previous one if the position is close to it.
+     * Drop the pages that are too far away.
+     * @param position Position accessed
+     */
+    private void loadAround(int position) {
+        int page = position / mPageSize;
+        loadPage(page);
+        int offset = position % mPageSize;
+        if (offset < mPrefetchDistance) {
+            loadPage(page - 1);
+        }
+        if (mPageSize - offset <= mPrefetchDistance) {
+            loadPage(page + 1);
+        }
+
+        if (page != mLastAccessedPage) {
+            mLastAccessedPage = page;
+            dropPagesFarFrom(page);
+        }
+    }
+
+    private void loadPage(int page) {
+        if (page < 0 || page * mPageSize >= mCount) {
+            return;
+        }
+        if (mPages.get(page) != null || mLoadingPages.get(page) != null) {
+            return;
+        }
+        int start = page * mPageSize;
+        LoadPageTask task = new LoadPageTask(page, start, Math.min(mPageSize, mCount - start));
+        mLoadingPages.put(page, task);
+        task.executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+    }
+
+    private void dropPagesFarFrom(int page) {
+        for (int i = mPages.size() - 1; i >= 0; i--) {
+            if (Math.abs(mPages.keyAt(i) - page) > mKeptPages) {
+                mPages.removeAt(i);
+            }
+        }
+        for (int i = mLoadingPages.size() - 1; i >= 0; i--) {
+            if (Math.abs(mLoadingPages.keyAt(i) - page) > mKeptPages) {
+                mLoadingPages.valueAt(i).cancel(false);
+                mLoadingPages.removeAt(i);
+            }
+        }
+    }
+
+    private void onPageLoaded(LoadPageTask task, List<Card> cards) {
+        if (mLoadingPages.get(task.mPage) != task) {
+            // Dropped while loading
+            return;
+        }
+        mLoadingPages.remove(task.mPage);
+        mPages.put(task.mPage, cards);
+        if (mCallback != null) {
+            mCallback.onPageLoaded(task.mStart, task.mLength);
+        }
+    }
+
+    /**
+     * Loads one page from the data source off the main thread
+     */
+    private class LoadPageTask extends AsyncTask<Void, Void, List<Card>> {
+        private final int mPage;
+        private final int mStart;
+        private final int mLength;
+
+        private LoadPageTask(int page, int start, int length) {
+            mPage = page;
+            mStart = start;
+            mLength = length;
+        }
+
+        @Override
+        protected List<Card> doInBackground(Void... params) {
+            return mDataSource.loadRange(mStart, mLength);
+        }
+
+        @Override
+        protected void onPostExecute(List<Card> cards) {
+            onPageLoaded(this, cards);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.shockn745.simpleform.validation;
+
+import android.os.Handler;
+
+/**
+ * {@link MainThreadScheduler} posting to a {@link Handler}
+ *
+ * @author Florian Kempenich
+ */
+public class HandlerScheduler implements MainThreadScheduler {
+
+    private final Handler mHandler;
+
+    /**
+     * @param handler Handler of the main thread
+     */
+    public HandlerScheduler(Handler handler) {
+        mHandler = handler;
+    }
+
+    @Override
+    public void post(Runnable task) {
+        mHandler.post(task);
+    }
+
+    @Override
+    public void postDelayed(Runnable task, long delayMs) {
+        mHandler.postDelayed(task, delayMs);
+    }
+
+    @Override
+    public void removeCallbacks(Runnable task) {
+        mHandler.removeCallbacks(task);
+    }
+}
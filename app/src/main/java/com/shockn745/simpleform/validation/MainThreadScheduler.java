@@ -0,0 +1,30 @@
+package com.shockn745.simpleform.validation;
+
+/**
+ * Runs tasks later on the main thread.
+ * Abstracts the Handler so that the {@link ValidationEngine} can run on the JVM with a manual
+ * implementation.
+ *
+ * @author Florian Kempenich
+ */
+public interface MainThreadScheduler {
+
+    /**
+     * Run a task on the main thread, after the tasks already posted
+     * @param task Task to run
+     */
+    void post(Runnable task);
+
+    /**
+     * Run a task on the main thread after a delay
+     * @param task Task to run
+     * @param delayMs Delay, in milliseconds
+     */
+    void postDelayed(Runnable task, long delayMs);
+
+    /**
+     * Remove every pending post of a task
+     * @param task Task to remove
+     */
+    void removeCallbacks(Runnable task);
+}
@@ -0,0 +1,24 @@
+package com.shockn745.simpleform.validation;
+
+/**
+ * Rule checking that a text field isn't empty
+ *
+ * @author Florian Kempenich
+ */
+public class NotEmptyRule implements ValidationEngine.Rule {
+
+    private final int mField;
+
+    /**
+     * @param field Id of the field, its value must be a CharSequence
+     */
+    public NotEmptyRule(int field) {
+        mField = field;
+    }
+
+    @Override
+    public boolean validate(ValidationEngine.FieldValues values) {
+        Object value = values.getValue(mField);
+        return value != null && ((CharSequence) value).length() != 0;
+    }
+}
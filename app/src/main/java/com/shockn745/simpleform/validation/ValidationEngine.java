@@ -0,0 +1,420 @@
+package com.shockn745.simpleform.validation;
+
+import android.os.AsyncTask;
+import android.os.Handler;
+
+import com.shockn745.simpleform.result.recyclerview.animation.FrameClock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Declarative form validation.
+ *
+ * Fields are identified by a small int (e.g. their index in the form). Each {@link Rule} declares
+ * the fields it reads : when a field changes, only the rules depending on it are run again. The
+ * aggregate validity (every rule valid) is maintained incrementally with a count of failing
+ * rules, so the cost of a change doesn't depend on the size of the form.
+ *
+ * Changes are processed once per frame : the {@link Listener} is called on the frame following
+ * the changes, and only if the aggregate validity has flipped.
+ *
+ * Costly rules can be added with {@link #addAsyncRule(Rule, long, int...)} : they run on a
+ * background executor, after the fields they read have stopped changing for a debounce delay.
+ * A change made while a rule runs makes its result stale : the result is dropped and the rule
+ * runs again, so only the result of the latest values is ever applied. A failing settled rule is
+ * published right away, but the form is only published valid once no asynchronous rule is
+ * waiting or running : the listener is never told the form is valid on a stale result.
+ *
+ * Must only be used from the main thread.
+ *
+ * @author Florian Kempenich
+ */
+public class ValidationEngine implements FrameClock.FrameCallback {
+
+    /**
+     * Read-only access to the current values of the fields
+     */
+    public interface FieldValues {
+        /**
+         * @param field Id of the field
+         * @return Current value of the field, null if never set
+         */
+        Object getValue(int field);
+    }
+
+    /**
+     * A validation rule, must only read the fields it depends on
+     */
+    public interface Rule {
+        /**
+         * @param values Current values of the fields
+         * @return true if valid
+         */
+        boolean validate(FieldValues values);
+    }
+
+    /**
+     * Notified when the validity of the whole form changes
+     */
+    public interface Listener {
+        /**
+         * @param valid true if every rule is valid
+         */
+        void onValidityChanged(boolean valid);
+    }
+
+    /**
+     * State of an asynchronous rule
+     */
+    private class AsyncRule implements Runnable {
+        private final int mRuleId;
+        private final long mDebounceMs;
+        private final int[] mFields;
+        // Incremented on each change, results of older generations are stale
+        private int mGeneration = 0;
+        // True from a change until the result of the latest values is applied
+        private boolean mUnsettled = false;
+        private FutureTask<Boolean> mTask;
+
+        AsyncRule(int ruleId, long debounceMs, int[] fields) {
+            mRuleId = ruleId;
+            mDebounceMs = debounceMs;
+            mFields = fields;
+        }
+
+        /**
+         * A field read by the rule has changed : restart the debounce delay
+         */
+        void invalidate() {
+            if (!mUnsettled) {
+                mUnsettled = true;
+                mUnsettledCount++;
+                if (!mRuleValid[mRuleId]) {
+                    mUnsettledInvalidCount++;
+                }
+            }
+            mGeneration++;
+            cancelTask();
+            mScheduler.removeCallbacks(this);
+            mScheduler.postDelayed(this, mDebounceMs);
+        }
+
+        void cancelTask() {
+            if (mTask != null) {
+                mTask.cancel(false);
+                mTask = null;
+            }
+        }
+
+        /**
+         * End of the debounce delay : run the rule on a snapshot of the values
+         */
+        @Override
+        public void run() {
+            final int generation = mGeneration;
+            final FieldValues snapshot = snapshot(mFields);
+            final Rule rule = mRules.get(mRuleId);
+            mTask = new FutureTask<Boolean>(new Runnable() {
+                @Override
+                public void run() {
+                    boolean result;
+                    try {
+                        result = rule.validate(snapshot);
+                    } catch (RuntimeException e) {
+                        // Swallowed by the FutureTask otherwise : the rule would never settle
+                        result = false;
+                    }
+                    final boolean valid = result;
+                    mScheduler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            onResult(generation, valid);
+                        }
+                    });
+                }
+            }, null);
+            mExecutor.execute(mTask);
+        }
+
+        private void onResult(int generation, boolean valid) {
+            if (generation != mGeneration || !mUnsettled) {
+                // Stale : the values have changed since
+                return;
+            }
+            mTask = null;
+            mUnsettled = false;
+            mUnsettledCount--;
+            if (!mRuleValid[mRuleId]) {
+                mUnsettledInvalidCount--;
+            }
+            setRuleResult(mRuleId, valid);
+            requestFrame();
+        }
+    }
+
+    private final FrameClock mFrameClock;
+    private final Listener mListener;
+    private final Executor mExecutor;
+    private final MainThreadScheduler mScheduler;
+
+    // Values, indexed by field id
+    private Object[] mValues = new Object[8];
+    private final FieldValues mFieldValues = new FieldValues() {
+        @Override
+        public Object getValue(int field) {
+            return field < mValues.length ? mValues[field] : null;
+        }
+    };
+
+    // Rules & their last result, indexed by rule id
+    private final ArrayList<Rule> mRules = new ArrayList<>();
+    private boolean[] mRuleValid = new boolean[8];
+    private int mInvalidCount = 0;
+
+    // Ids of the rules depending on each field, indexed by field id
+    private final ArrayList<int[]> mDependents = new ArrayList<>();
+
+    // Indexed by rule id, null for the synchronous rules
+    private final ArrayList<AsyncRule> mAsyncRules = new ArrayList<>();
+    // Asynchronous rules whose result isn't known for the latest values
+    private int mUnsettledCount = 0;
+    // Unsettled asynchronous rules whose last result is invalid, counted in mInvalidCount
+    private int mUnsettledInvalidCount = 0;
+
+    // Rules to run on the next frame
+    private boolean[] mDirty = new boolean[8];
+    private int[] mDirtyRules = new int[8];
+    private int mDirtyCount = 0;
+    private boolean mFrameRequested = false;
+
+    // Last validity given to the listener
+    private boolean mPublishedValid = false;
+
+    /**
+     * @param frameClock Source of frames, the changes are processed once per frame
+     * @param listener Notified when the validity of the form flips. The form starts invalid.
+     */
+    public ValidationEngine(FrameClock frameClock, Listener listener) {
+        this(frameClock,
+                AsyncTask.THREAD_POOL_EXECUTOR,
+                new HandlerScheduler(new Handler()),
+                listener);
+    }
+
+    /**
+     * @param frameClock Source of frames, the changes are processed once per frame
+     * @param executor Runs the asynchronous rules
+     * @param scheduler Main thread scheduler, delivers the debounce delays & the results
+     * @param listener Notified when the validity of the form flips. The form starts invalid.
+     */
+    public ValidationEngine(FrameClock frameClock, Executor executor,
+                            MainThreadScheduler scheduler, Listener listener) {
+        mFrameClock = frameClock;
+        mExecutor = executor;
+        mScheduler = scheduler;
+        mListener = listener;
+    }
+
+    /**
+     * Add a rule. It starts invalid and is run on the next frame.
+     * @param rule Rule to add
+     * @param fields Ids of the fields the rule reads
+     * @return Id of the rule
+     */
+    public int addRule(Rule rule, int... fields) {
+        int ruleId = mRules.size();
+        mRules.add(rule);
+        mAsyncRules.add(null);
+        registerRule(ruleId, fields);
+        return ruleId;
+    }
+
+    private void registerRule(int ruleId, int[] fields) {
+        if (ruleId >= mRuleValid.length) {
+            mRuleValid = Arrays.copyOf(mRuleValid, ruleId * 2);
+            mDirty = Arrays.copyOf(mDirty, ruleId * 2);
+        }
+        mInvalidCount++;
+
+        for (int field : fields) {
+            while (mDependents.size() <= field) {
+                mDependents.add(new int[0]);
+            }
+            int[] dependents = mDependents.get(field);
+            int[] newDependents = Arrays.copyOf(dependents, dependents.length + 1);
+            newDependents[dependents.length] = ruleId;
+            mDependents.set(field, newDependents);
+        }
+
+        markDirty(ruleId);
+    }
+
+    /**
+     * Add a costly rule, run on the background executor once the fields it reads haven't changed
+     * for debounceMs. It starts invalid and unsettled.
+     * @param rule Rule to add, called on a background thread with a snapshot of the values : text
+     *             values are given as Strings. A rule throwing a RuntimeException is invalid.
+     * @param debounceMs Delay without change before running the rule
+     * @param fields Ids of the fields the rule reads
+     * @return Id of the rule
+     */
+    public int addAsyncRule(Rule rule, long debounceMs, int... fields) {
+        int ruleId = mRules.size();
+        mAsyncRules.add(new AsyncRule(ruleId, debounceMs, fields.clone()));
+        mRules.add(rule);
+        registerRule(ruleId, fields);
+        return ruleId;
+    }
+
+    /**
+     * Set the value of a field. The rules depending on it are run on the next frame.
+     * @param field Id of the field
+     * @param value New value. May be a mutable object (e.g. an Editable) : it is read on the next
+     *              frame, call this method again each time it changes.
+     */
+    public void setValue(int field, Object value) {
+        if (field >= mValues.length) {
+            mValues = Arrays.copyOf(mValues, Math.max(field + 1, mValues.length * 2));
+        }
+        mValues[field] = value;
+        if (field < mDependents.size()) {
+            int[] dependents = mDependents.get(field);
+            for (int i = 0; i < dependents.length; i++) {
+                markDirty(dependents[i]);
+            }
+        }
+    }
+
+    /**
+     * @param field Id of the field
+     * @return Current value of the field, null if never set
+     */
+    public Object getValue(int field) {
+        return mFieldValues.getValue(field);
+    }
+
+    /**
+     * @return true if no asynchronous rule is waiting for its debounce delay or running
+     */
+    public boolean isSettled() {
+        return mUnsettledCount == 0;
+    }
+
+    /**
+     * @return The validity given to the listener last
+     */
+    public boolean isValid() {
+        return mPublishedValid;
+    }
+
+    /**
+     * @param ruleId Id returned by {@link #addRule(Rule, int...)}
+     * @return Result of the last run of the rule, false if not run yet
+     */
+    public boolean isRuleValid(int ruleId) {
+        return mRuleValid[ruleId];
+    }
+
+    /**
+     * Stop processing the changes, call when the form is destroyed
+     */
+    public void release() {
+        if (mFrameRequested) {
+            mFrameClock.removeFrameCallback(this);
+            mFrameRequested = false;
+        }
+        for (int i = 0; i < mAsyncRules.size(); i++) {
+            AsyncRule asyncRule = mAsyncRules.get(i);
+            if (asyncRule != null) {
+                // Results in flight become stale
+                asyncRule.mGeneration++;
+                asyncRule.cancelTask();
+                mScheduler.removeCallbacks(asyncRule);
+            }
+        }
+    }
+
+    private void markDirty(int ruleId) {
+        AsyncRule asyncRule = mAsyncRules.get(ruleId);
+        if (asyncRule != null) {
+            asyncRule.invalidate();
+            return;
+        }
+        if (mDirty[ruleId]) {
+            return;
+        }
+        mDirty[ruleId] = true;
+        if (mDirtyCount == mDirtyRules.length) {
+            mDirtyRules = Arrays.copyOf(mDirtyRules, mDirtyCount * 2);
+        }
+        mDirtyRules[mDirtyCount++] = ruleId;
+        requestFrame();
+    }
+
+    private void requestFrame() {
+        if (!mFrameRequested) {
+            mFrameRequested = true;
+            mFrameClock.postFrameCallback(this);
+        }
+    }
+
+    private void setRuleResult(int ruleId, boolean valid) {
+        if (valid != mRuleValid[ruleId]) {
+            mRuleValid[ruleId] = valid;
+            mInvalidCount += valid ? -1 : 1;
+        }
+    }
+
+    /**
+     * Copy the values read by an asynchronous rule : the mutable texts can't be read from
+     * another thread
+     * @param fields Ids of the fields to copy
+     * @return Immutable values
+     */
+    private FieldValues snapshot(int[] fields) {
+        int size = 0;
+        for (int field : fields) {
+            size = Math.max(size, field + 1);
+        }
+        final Object[] values = new Object[size];
+        for (int field : fields) {
+            Object value = getValue(field);
+            values[field] = value instanceof CharSequence ? value.toString() : value;
+        }
+        return new FieldValues() {
+            @Override
+            public Object getValue(int field) {
+                return field < values.length ? values[field] : null;
+            }
+        };
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        mFrameRequested = false;
+        for (int i = 0; i < mDirtyCount; i++) {
+            int ruleId = mDirtyRules[i];
+            mDirty[ruleId] = false;
+            setRuleResult(ruleId, mRules.get(ruleId).validate(mFieldValues));
+        }
+        mDirtyCount = 0;
+
+        boolean valid;
+        if (mInvalidCount > mUnsettledInvalidCount) {
+            // A settled rule fails : invalid whatever the unsettled rules return
+            valid = false;
+        } else if (mUnsettledCount == 0) {
+            valid = mInvalidCount == 0;
+        } else {
+            // Only published valid once the asynchronous rules have settled
+            return;
+        }
+        if (valid != mPublishedValid) {
+            mPublishedValid = valid;
+            mListener.onValidityChanged(valid);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.shockn745.simpleform;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the epoch day arithmetic of {@link DateService} against a proleptic
+ * {@link GregorianCalendar}
+ */
+public class DateServiceTest {
+
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+
+    /**
+     * @return A calendar in UTC, Gregorian for every date
+     */
+    private static GregorianCalendar createCalendar() {
+        GregorianCalendar calendar = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+        calendar.setGregorianChange(new Date(Long.MIN_VALUE));
+        calendar.clear();
+        return calendar;
+    }
+
+    /**
+     * @return Astronomical year : 1 BC is the year 0
+     */
+    private static int getYear(Calendar calendar) {
+        int year = calendar.get(Calendar.YEAR);
+        return calendar.get(Calendar.ERA) == GregorianCalendar.BC ? 1 - year : year;
+    }
+
+    @Test
+    public void knownDates() {
+        assertEquals(0, DateService.toEpochDay(1970, 0, 1));
+        assertEquals(-1, DateService.toEpochDay(1969, 11, 31));
+        assertEquals(11016, DateService.toEpochDay(2000, 1, 29));
+        assertEquals(-719528, DateService.toEpochDay(0, 0, 1));
+    }
+
+    @Test
+    public void roundTripsEveryDayAgainstCalendar() {
+        GregorianCalendar calendar = createCalendar();
+        calendar.set(Calendar.ERA, GregorianCalendar.BC);
+        calendar.set(1001, Calendar.JANUARY, 1);
+        int epochDay = (int) Math.floor((double) calendar.getTimeInMillis() / MILLIS_PER_DAY);
+        // From 1001 BC (year -1000) to 3000 : negative years & epoch days, every century rule
+        while (getYear(calendar) <= 3000) {
+            int year = getYear(calendar);
+            int month = calendar.get(Calendar.MONTH);
+            int day = calendar.get(Calendar.DAY_OF_MONTH);
+            String date = year + "-" + (month + 1) + "-" + day;
+
+            assertEquals(date, epochDay, DateService.toEpochDay(year, month, day));
+            assertEquals(date, year, DateService.getYear(epochDay));
+            assertEquals(date, month, DateService.getMonthOfYear(epochDay));
+            assertEquals(date, day, DateService.getDayOfMonth(epochDay));
+
+            calendar.add(Calendar.DAY_OF_MONTH, 1);
+            epochDay++;
+        }
+    }
+
+    @Test
+    public void ageCutoffIsSameDayYearsBefore() {
+        assertEquals(DateService.toEpochDay(1997, 5, 15),
+                DateService.getAgeCutoff(DateService.toEpochDay(2015, 5, 15), 18));
+        assertEquals(DateService.toEpochDay(1982, 2, 1),
+                DateService.getAgeCutoff(DateService.toEpochDay(2000, 2, 1), 18));
+        assertEquals(DateService.toEpochDay(1951, 11, 31),
+                DateService.getAgeCutoff(DateService.toEpochDay(1969, 11, 31), 18));
+    }
+
+    @Test
+    public void ageCutoffOnLeapDay() {
+        // No 29th of February 18 years before : the 28th
+        assertEquals(DateService.toEpochDay(1998, 1, 28),
+                DateService.getAgeCutoff(DateService.toEpochDay(2016, 1, 29), 18));
+        // Leap year 4 & 400 years before
+        assertEquals(DateService.toEpochDay(2016, 1, 29),
+                DateService.getAgeCutoff(DateService.toEpochDay(2020, 1, 29), 4));
+        assertEquals(DateService.toEpochDay(1600, 1, 29),
+                DateService.getAgeCutoff(DateService.toEpochDay(2000, 1, 29), 400));
+        // 1900 isn't a leap year
+        assertEquals(DateService.toEpochDay(1900, 1, 28),
+                DateService.getAgeCutoff(DateService.toEpochDay(2000, 1, 29), 100));
+        // The day after the leap day
+        assertEquals(DateService.toEpochDay(1998, 2, 1),
+                DateService.getAgeCutoff(DateService.toEpochDay(2016, 2, 1), 18));
+    }
+}
@@ -0,0 +1,152 @@
+package com.shockn745.simpleform.form;
+
+import com.shockn745.simpleform.form.SchemaCodec.CompiledField;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SchemaCodecTest {
+
+    private static final int VERSION_CODE = 7;
+    private static final long LAST_UPDATE_TIME = 1234567890L;
+    private static final long HASH = 0xCAFEL;
+
+    // Offsets in the encoded bytes
+    private static final int COUNT_OFFSET = 28;
+    private static final int FIRST_FIELD_OFFSET = 32;
+    private static final int FIRST_KEY_LENGTH_OFFSET = FIRST_FIELD_OFFSET + 4;
+
+    private List<CompiledField> mFields;
+    private byte[] mBytes;
+
+    @Before
+    public void setUp() throws IOException {
+        mFields = new ArrayList<>();
+        mFields.add(field("name", FieldSpec.Type.TEXT, true, 0, "name", ""));
+        mFields.add(field("birthday", FieldSpec.Type.DATE, false, 18, "", "Date de naissance"));
+        mBytes = encode(mFields);
+    }
+
+    private static CompiledField field(String key, FieldSpec.Type type, boolean required,
+                                       int minAge, String labelName, String label) {
+        CompiledField field = new CompiledField();
+        field.key = key;
+        field.type = type;
+        field.required = required;
+        field.minAge = minAge;
+        field.labelName = labelName;
+        field.label = label;
+        return field;
+    }
+
+    private static byte[] encode(List<CompiledField> fields) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        SchemaCodec.encode(out, VERSION_CODE, LAST_UPDATE_TIME, HASH, fields);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    private static ArrayList<CompiledField> decode(byte[] bytes, int length) throws IOException {
+        return SchemaCodec.decode(
+                ByteBuffer.wrap(bytes, 0, length), VERSION_CODE, LAST_UPDATE_TIME, HASH);
+    }
+
+    private void assertCorrupt(byte[] bytes) {
+        try {
+            decode(bytes, bytes.length);
+            fail("Decoded a corrupt schema");
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        ArrayList<CompiledField> fields = decode(mBytes, mBytes.length);
+        assertEquals(mFields.size(), fields.size());
+        for (int i = 0; i < mFields.size(); i++) {
+            CompiledField expected = mFields.get(i);
+            CompiledField actual = fields.get(i);
+            assertEquals(expected.key, actual.key);
+            assertEquals(expected.type, actual.type);
+            assertEquals(expected.required, actual.required);
+            assertEquals(expected.minAge, actual.minAge);
+            assertEquals(expected.labelName, actual.labelName);
+            assertEquals(expected.label, actual.label);
+        }
+    }
+
+    @Test
+    public void roundTripWithoutFields() throws IOException {
+        byte[] bytes = encode(new ArrayList<CompiledField>());
+        assertTrue(decode(bytes, bytes.length).isEmpty());
+    }
+
+    @Test
+    public void matchesOnLastUpdateTimeOrHash() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(mBytes);
+        assertFalse(SchemaCodec.decode(buffer, VERSION_CODE, LAST_UPDATE_TIME, SchemaCodec.UNKNOWN)
+                .isEmpty());
+        buffer.rewind();
+        assertFalse(SchemaCodec.decode(buffer, VERSION_CODE, SchemaCodec.UNKNOWN, HASH).isEmpty());
+        buffer.rewind();
+        assertNull(SchemaCodec.decode(buffer, VERSION_CODE, LAST_UPDATE_TIME + 1, HASH + 1));
+        buffer.rewind();
+        assertNull(SchemaCodec.decode(
+                buffer, VERSION_CODE, SchemaCodec.UNKNOWN, SchemaCodec.UNKNOWN));
+        buffer.rewind();
+        assertNull(SchemaCodec.decode(buffer, VERSION_CODE + 1, LAST_UPDATE_TIME, HASH));
+    }
+
+    @Test
+    public void rejectsTruncatedBytes() {
+        for (int length = 0; length < mBytes.length; length++) {
+            try {
+                decode(mBytes, length);
+                fail("Decoded a schema truncated to " + length + " bytes");
+            } catch (IOException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void rejectsWrongMagic() {
+        mBytes[0] ^= 0xFF;
+        assertCorrupt(mBytes);
+    }
+
+    @Test
+    public void rejectsCorruptCount() {
+        ByteBuffer.wrap(mBytes).putInt(COUNT_OFFSET, Integer.MAX_VALUE);
+        assertCorrupt(mBytes);
+        ByteBuffer.wrap(mBytes).putInt(COUNT_OFFSET, -1);
+        assertCorrupt(mBytes);
+    }
+
+    @Test
+    public void rejectsCorruptStringLength() {
+        ByteBuffer.wrap(mBytes).putInt(FIRST_KEY_LENGTH_OFFSET, mBytes.length);
+        assertCorrupt(mBytes);
+        ByteBuffer.wrap(mBytes).putInt(FIRST_KEY_LENGTH_OFFSET, -1);
+        assertCorrupt(mBytes);
+    }
+
+    @Test
+    public void rejectsCorruptType() {
+        mBytes[FIRST_FIELD_OFFSET] = 42;
+        assertCorrupt(mBytes);
+    }
+}
@@ -0,0 +1,90 @@
+package com.shockn745.simpleform.metrics;
+
+import com.shockn745.simpleform.result.recyclerview.animation.VirtualFrameClock;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class AnimationMetricsTrackerTest {
+
+    private static final long FRAME_NANOS = 1000000000L / 60;
+
+    private VirtualFrameClock mClock;
+    private int mMeasuredFrames;
+    private int mDroppedFrames;
+    private int mFrameStatsCalls;
+    private final FrameStatsListener mFrameStatsListener = new FrameStatsListener() {
+        @Override
+        public void onFrameStats(int measuredFrames, int droppedFrames) {
+            mMeasuredFrames += measuredFrames;
+            mDroppedFrames += droppedFrames;
+            mFrameStatsCalls++;
+        }
+    };
+
+    @Before
+    public void setUp() {
+        mClock = new VirtualFrameClock(0);
+        mMeasuredFrames = 0;
+        mDroppedFrames = 0;
+        mFrameStatsCalls = 0;
+    }
+
+    @Test
+    public void concurrentAnimationsCountTheirFramesOnce() {
+        AnimationMetricsTracker tracker =
+                new AnimationMetricsTracker(mClock, 60, mFrameStatsListener, null);
+        AnimationMetricsTracker.Session first = tracker.begin("first");
+        AnimationMetricsTracker.Session second = tracker.begin("second");
+        // 1 frame to start measuring, then 10 intervals including a frame 3 intervals long
+        mClock.runFrames(9, FRAME_NANOS);
+        mClock.advance(3 * FRAME_NANOS);
+        tracker.end(first, false);
+        tracker.end(second, false);
+
+        assertEquals(11, mMeasuredFrames);
+        assertEquals(2, mDroppedFrames);
+        // Nothing new measured for the second one
+        assertEquals(1, mFrameStatsCalls);
+        assertFalse(mClock.hasPendingCallbacks());
+    }
+
+    @Test
+    public void timeWithoutAnimationIsNotMeasured() {
+        AnimationMetricsTracker tracker =
+                new AnimationMetricsTracker(mClock, 60, mFrameStatsListener, null);
+        tracker.end(tracker.begin("first"), false);
+        mClock.advance(100 * FRAME_NANOS);
+        AnimationMetricsTracker.Session session = tracker.begin("second");
+        mClock.runFrames(5, FRAME_NANOS);
+        tracker.end(session, false);
+
+        assertEquals(4, mMeasuredFrames);
+        assertEquals(0, mDroppedFrames);
+    }
+
+    @Test
+    public void sinkReceivesOneMetricsPerAnimation() {
+        InMemoryMetricsSink sink = new InMemoryMetricsSink();
+        AnimationMetricsTracker tracker =
+                new AnimationMetricsTracker(mClock, 60, mFrameStatsListener, sink);
+        AnimationMetricsTracker.Session session = tracker.begin("card_add");
+        mClock.runFrames(3, FRAME_NANOS);
+        mClock.advance(2 * FRAME_NANOS);
+        tracker.end(session, true);
+
+        assertEquals(1, sink.getMetrics().size());
+        AnimationMetrics metrics = sink.getMetrics().get(0);
+        assertEquals("card_add", metrics.getName());
+        assertEquals(4, metrics.getFrameCount());
+        assertEquals(1, metrics.getDroppedFrames());
+        assertEquals(2, metrics.getHistogram()[0]);
+        assertEquals(1, metrics.getHistogram()[1]);
+        assertEquals(true, metrics.isCancelled());
+        assertEquals(4, mMeasuredFrames);
+        assertEquals(1, mDroppedFrames);
+    }
+}
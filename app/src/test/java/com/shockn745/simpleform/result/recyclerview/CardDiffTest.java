@@ -0,0 +1,124 @@
+package com.shockn745.simpleform.result.recyclerview;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Applies the scripts of {@link CardDiff} to a list of headers, as an adapter would
+ */
+public class CardDiffTest {
+
+    /**
+     * Mirror of the adapter : headers, plus the positions reported as changed
+     */
+    private static class ListCallback implements CardDiff.UpdateCallback {
+        final List<String> mHeaders = new ArrayList<>();
+        final List<Card> mNewCards;
+        int mMoves = 0;
+        final List<Integer> mChanged = new ArrayList<>();
+
+        ListCallback(List<Card> oldCards, List<Card> newCards) {
+            for (Card card : oldCards) {
+                mHeaders.add(card.getHeader());
+            }
+            mNewCards = newCards;
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            for (int i = 0; i < count; i++) {
+                mHeaders.remove(position);
+            }
+        }
+
+        @Override
+        public void onInserted(int position, int count) {
+            for (int i = 0; i < count; i++) {
+                mHeaders.add(position + i, mNewCards.get(position + i).getHeader());
+            }
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            mHeaders.add(toPosition, mHeaders.remove(fromPosition));
+            mMoves++;
+        }
+
+        @Override
+        public void onChanged(int position) {
+            mChanged.add(position);
+        }
+    }
+
+    private static List<Card> cards(String... headers) {
+        List<Card> cards = new ArrayList<>();
+        for (String header : headers) {
+            cards.add(new Card(header, header));
+        }
+        return cards;
+    }
+
+    private static ListCallback apply(List<Card> oldCards, List<Card> newCards) {
+        ListCallback callback = new ListCallback(oldCards, newCards);
+        CardDiff.compute(oldCards, newCards).dispatchTo(callback);
+        List<String> expected = new ArrayList<>();
+        for (Card card : newCards) {
+            expected.add(card.getHeader());
+        }
+        assertEquals(expected, callback.mHeaders);
+        return callback;
+    }
+
+    @Test
+    public void identicalListsGiveEmptyScript() {
+        assertTrue(CardDiff.compute(cards("a", "b", "c"), cards("a", "b", "c")).isEmpty());
+    }
+
+    @Test
+    public void onlyCardsOutOfTheStableRunAreMoved() {
+        // b, c & d keep their relative order : only a moves
+        assertEquals(1, apply(cards("a", "b", "c", "d"), cards("b", "c", "d", "a")).mMoves);
+    }
+
+    @Test
+    public void changedContentIsReportedAtItsNewPosition() {
+        List<Card> newCards = cards("c", "a", "b");
+        newCards.set(1, new Card("a", "new content"));
+        assertEquals(Collections.singletonList(1), apply(cards("a", "b", "c"), newCards).mChanged);
+    }
+
+    @Test
+    public void randomListsAreTransformed() {
+        Random random = new Random(42);
+        for (int iteration = 0; iteration < 5000; iteration++) {
+            int headers = 1 + random.nextInt(8);
+            List<Card> oldCards = new ArrayList<>();
+            List<Card> newCards = new ArrayList<>();
+            for (int i = random.nextInt(15); i > 0; i--) {
+                oldCards.add(new Card("h" + random.nextInt(headers), "c" + random.nextInt(2)));
+            }
+            for (int i = random.nextInt(15); i > 0; i--) {
+                newCards.add(new Card("h" + random.nextInt(headers), "c" + random.nextInt(2)));
+            }
+            apply(oldCards, newCards);
+        }
+    }
+
+    @Test
+    public void largeShuffledListIsTransformed() {
+        List<Card> oldCards = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            oldCards.add(new Card("h" + i, ""));
+        }
+        List<Card> newCards = new ArrayList<>(oldCards);
+        Collections.shuffle(newCards, new Random(42));
+        apply(oldCards, newCards);
+    }
+}
@@ -0,0 +1,96 @@
+package com.shockn745.simpleform.result.recyclerview;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CompactCardStoreTest {
+
+    private static final String[] HEADERS = {"Name", "Surname", "Birthday"};
+    private static final int MEMORY_CARDS = 100000;
+
+    private static String content(int i) {
+        return "Content of the card number " + i;
+    }
+
+    @Test
+    public void storesCardsInOrder() {
+        CompactCardStore store = new CompactCardStore();
+        for (int i = 0; i < 100; i++) {
+            store.add(HEADERS[i % HEADERS.length], content(i));
+        }
+        store.add("Empty", null);
+
+        assertEquals(101, store.size());
+        assertEquals("Surname", store.getHeader(1));
+        assertEquals(content(42), store.getContent(42));
+        assertEquals("", store.getContent(100));
+    }
+
+    @Test
+    public void removalsKeepTheOtherCardsAcrossCompactions() {
+        Random random = new Random(42);
+        CompactCardStore store = new CompactCardStore();
+        List<Card> expected = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            if (expected.isEmpty() || random.nextInt(3) > 0) {
+                String header = HEADERS[random.nextInt(HEADERS.length)];
+                store.add(header, content(i));
+                expected.add(new Card(header, content(i)));
+            } else {
+                int start = random.nextInt(expected.size());
+                int count = 1 + random.nextInt(Math.min(5, expected.size() - start));
+                store.removeRange(start, count);
+                expected.subList(start, start + count).clear();
+            }
+        }
+
+        List<Card> cards = store.toCards();
+        assertEquals(expected.size(), cards.size());
+        for (int i = 0; i < cards.size(); i++) {
+            assertEquals(expected.get(i).getHeader(), cards.get(i).getHeader());
+            assertEquals(expected.get(i).getContent(), cards.get(i).getContent());
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void invalidPositionThrows() {
+        CompactCardStore store = new CompactCardStore();
+        store.add("header", "content");
+        store.getContent(1);
+    }
+
+    /**
+     * The footprint of the store is its arrays : check their sizes instead of measuring the heap.
+     * The headers are new Strings for each card, as when read from the resources in
+     * ResultActivity.
+     */
+    @Test
+    public void storageIsProportionalToTheCards() {
+        CompactCardStore store = new CompactCardStore();
+        int contentChars = 0;
+        for (int i = 0; i < MEMORY_CARDS; i++) {
+            store.add(new String(HEADERS[i % HEADERS.length]), content(i));
+            contentChars += content(i).length();
+        }
+        // One String per distinct header, 3 ints per card, the contents packed in one buffer
+        assertEquals(HEADERS.length, store.getHeaderCount());
+        assertTrue(store.getCardCapacity() < 2 * MEMORY_CARDS);
+        assertTrue(store.getContentCapacity() < 2 * contentChars);
+
+        // Removed contents are reclaimed
+        int kept = MEMORY_CARDS / 4;
+        store.removeRange(kept, MEMORY_CARDS - kept);
+        int keptChars = 0;
+        for (int i = 0; i < kept; i++) {
+            keptChars += content(i).length();
+        }
+        assertTrue(store.getContentCapacity() <= 2 * keptChars);
+        assertEquals(content(kept - 1), store.getContent(kept - 1));
+    }
+}
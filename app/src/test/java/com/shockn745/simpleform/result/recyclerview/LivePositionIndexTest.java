@@ -0,0 +1,94 @@
+package com.shockn745.simpleform.result.recyclerview;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LivePositionIndexTest {
+
+    @Test
+    public void killedEntriesAreSkipped() {
+        LivePositionIndex index = new LivePositionIndex(5);
+        index.kill(1);
+        index.kill(3);
+
+        assertEquals(3, index.liveCount());
+        assertEquals(2, index.deadCount());
+        assertEquals(0, index.indexOf(0));
+        assertEquals(2, index.indexOf(1));
+        assertEquals(4, index.indexOf(2));
+        assertTrue(index.isDead(3));
+    }
+
+    @Test
+    public void killingTwiceCountsOnce() {
+        LivePositionIndex index = new LivePositionIndex(3);
+        index.kill(1);
+        index.kill(1);
+        assertEquals(2, index.liveCount());
+    }
+
+    @Test
+    public void compactionMakesEverythingLive() {
+        LivePositionIndex index = new LivePositionIndex(4);
+        index.kill(0);
+        index.kill(2);
+        index.compacted();
+
+        assertEquals(2, index.liveCount());
+        assertEquals(0, index.deadCount());
+        assertEquals(1, index.indexOf(1));
+        assertFalse(index.isDead(0));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void positionPastLiveCountThrows() {
+        LivePositionIndex index = new LivePositionIndex(2);
+        index.kill(0);
+        index.indexOf(1);
+    }
+
+    /**
+     * Random appends, kills & compactions, checked against a list of the live indexes
+     */
+    @Test
+    public void matchesAListOfLiveIndexes() {
+        Random random = new Random(42);
+        LivePositionIndex index = new LivePositionIndex(10);
+        int size = 10;
+        List<Integer> live = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            live.add(i);
+        }
+
+        for (int iteration = 0; iteration < 20000; iteration++) {
+            int operation = random.nextInt(20);
+            if (operation == 0) {
+                index.compacted();
+                size = live.size();
+                live.clear();
+                for (int i = 0; i < size; i++) {
+                    live.add(i);
+                }
+            } else if (operation < 10 || live.isEmpty()) {
+                index.append();
+                live.add(size++);
+            } else {
+                int position = random.nextInt(live.size());
+                assertEquals((int) live.get(position), index.indexOf(position));
+                index.kill(live.remove(position));
+            }
+            assertEquals(live.size(), index.liveCount());
+            assertEquals(size - live.size(), index.deadCount());
+        }
+        for (int position = 0; position < live.size(); position++) {
+            assertEquals((int) live.get(position), index.indexOf(position));
+        }
+    }
+}
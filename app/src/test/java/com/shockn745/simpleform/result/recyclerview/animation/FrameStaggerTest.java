@@ -0,0 +1,176 @@
+package com.shockn745.simpleform.result.recyclerview.animation;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Drives a {@link FrameStagger} with a {@link VirtualFrameClock}
+ */
+public class FrameStaggerTest {
+
+    private static final long STAGGER_MILLIS = 100;
+    private static final long STAGGER_NANOS = STAGGER_MILLIS * 1000000L;
+    private static final long FRAME_60_HZ = 1000000000L / 60;
+    private static final long FRAME_120_HZ = 1000000000L / 120;
+
+    private VirtualFrameClock mClock;
+    // Frame time of each release
+    private final List<Long> mReleaseTimes = new ArrayList<>();
+    private final List<Integer> mReleaseIndexes = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        mClock = new VirtualFrameClock(0);
+        mReleaseTimes.clear();
+        mReleaseIndexes.clear();
+    }
+
+    private FrameStagger createStagger(float refreshRate) {
+        return new FrameStagger(mClock, STAGGER_MILLIS, refreshRate, new FrameStagger.Listener() {
+            @Override
+            public void onRelease(int index) {
+                mReleaseTimes.add(mClock.getTimeNanos());
+                mReleaseIndexes.add(index);
+            }
+        });
+    }
+
+    /**
+     * Check that release i happened on the frame closest to firstFrame + (i + 1) * stagger
+     */
+    private void assertOnSchedule(long firstFrameNanos, long frameIntervalNanos) {
+        for (int i = 0; i < mReleaseTimes.size(); i++) {
+            long due = firstFrameNanos + (i + 1) * STAGGER_NANOS;
+            long error = Math.abs(mReleaseTimes.get(i) - due);
+            assertTrue("Release " + i + " off by " + error + "ns", error <= frameIntervalNanos / 2);
+        }
+    }
+
+    @Test
+    public void releasesEveryItemInOrderThenStops() {
+        FrameStagger stagger = createStagger(60);
+        stagger.start(5);
+        mClock.runFrames(100, FRAME_60_HZ);
+
+        assertEquals(5, mReleaseIndexes.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, (int) mReleaseIndexes.get(i));
+        }
+        assertFalse(stagger.isRunning());
+        assertFalse(mClock.hasPendingCallbacks());
+    }
+
+    @Test
+    public void followsElapsedTimeAt60And120Hz() {
+        createStagger(60).start(10);
+        mClock.runFrames(100, FRAME_60_HZ);
+        assertEquals(10, mReleaseTimes.size());
+        assertOnSchedule(FRAME_60_HZ, FRAME_60_HZ);
+
+        setUp();
+        createStagger(120).start(10);
+        mClock.runFrames(200, FRAME_120_HZ);
+        assertEquals(10, mReleaseTimes.size());
+        assertOnSchedule(FRAME_120_HZ, FRAME_120_HZ);
+    }
+
+    @Test
+    public void lateFramesDontStretchTheGaps() {
+        FrameStagger stagger = createStagger(60);
+        stagger.start(10);
+        // Jank : a late frame every 10 frames, including several in a row
+        for (int frame = 0; frame < 120; frame++) {
+            boolean late = frame % 10 == 3 || (frame >= 40 && frame < 45);
+            mClock.advance(late ? 3 * FRAME_60_HZ : FRAME_60_HZ);
+        }
+
+        assertEquals(10, mReleaseTimes.size());
+        // A late frame may delay an item until the next frame, never the following ones
+        for (int i = 0; i < mReleaseTimes.size(); i++) {
+            long due = FRAME_60_HZ + (i + 1) * STAGGER_NANOS;
+            assertTrue(mReleaseTimes.get(i) >= due - FRAME_60_HZ / 2);
+            assertTrue(mReleaseTimes.get(i) <= due + 3 * FRAME_60_HZ);
+        }
+        assertTrue(stagger.getLateFrames() > 0);
+        // The interval only comes from the refresh rate
+        assertEquals(FRAME_60_HZ, stagger.getFrameIntervalNanos(), 1f);
+    }
+
+    @Test
+    public void stallReleasesOneItemPerFrameAtMost() {
+        createStagger(60).start(10);
+        mClock.advance(FRAME_60_HZ);
+        // Stalled for 5 staggers
+        mClock.advance(5 * STAGGER_NANOS);
+        mClock.runFrames(3, FRAME_60_HZ);
+
+        assertEquals(1, mReleaseTimes.size());
+        // Then back on schedule, from the stall
+        mClock.runFrames(100, FRAME_60_HZ);
+        for (int i = 1; i < mReleaseTimes.size(); i++) {
+            long gap = mReleaseTimes.get(i) - mReleaseTimes.get(i - 1);
+            assertTrue(Math.abs(gap - STAGGER_NANOS) <= FRAME_60_HZ);
+        }
+    }
+
+    @Test
+    public void refreshRateChangeIsApplied() {
+        FrameStagger stagger = createStagger(60);
+        stagger.setRefreshRate(120);
+        assertEquals(FRAME_120_HZ, stagger.getFrameIntervalNanos(), 1f);
+        stagger.start(5);
+        mClock.runFrames(100, FRAME_120_HZ);
+        assertOnSchedule(FRAME_120_HZ, FRAME_120_HZ);
+    }
+
+    @Test
+    public void itemsStartedWhileRunningAreAppended() {
+        FrameStagger stagger = createStagger(60);
+        stagger.start(2);
+        mClock.runFrames(8, FRAME_60_HZ);
+        stagger.start(2);
+        mClock.runFrames(100, FRAME_60_HZ);
+
+        assertEquals(4, mReleaseTimes.size());
+        assertOnSchedule(FRAME_60_HZ, FRAME_60_HZ);
+    }
+
+    @Test
+    public void setRemainingDropsTheRest() {
+        final FrameStagger[] stagger = new FrameStagger[1];
+        stagger[0] = new FrameStagger(mClock, STAGGER_MILLIS, 60, new FrameStagger.Listener() {
+            @Override
+            public void onRelease(int index) {
+                mReleaseIndexes.add(index);
+                if (index == 0) {
+                    // Only one left after this one
+                    stagger[0].setRemaining(1);
+                }
+            }
+        });
+        stagger[0].start(10);
+        mClock.runFrames(100, FRAME_60_HZ);
+
+        assertEquals(2, mReleaseIndexes.size());
+        assertFalse(stagger[0].isRunning());
+    }
+
+    @Test
+    public void cancelStopsReleasing() {
+        FrameStagger stagger = createStagger(60);
+        stagger.start(10);
+        mClock.runFrames(10, FRAME_60_HZ);
+        stagger.cancel();
+        mClock.runFrames(100, FRAME_60_HZ);
+
+        assertEquals(1, mReleaseTimes.size());
+        assertFalse(stagger.isRunning());
+    }
+}
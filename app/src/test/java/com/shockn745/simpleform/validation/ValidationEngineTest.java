@@ -0,0 +1,430 @@
+package com.shockn745.simpleform.validation;
+
+import com.shockn745.simpleform.result.recyclerview.animation.VirtualFrameClock;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Drives a {@link ValidationEngine} with a {@link VirtualFrameClock}, a manual
+ * {@link MainThreadScheduler} and a manual {@link Executor} : frames, delays & background work
+ * only happen when the test asks.
+ */
+public class ValidationEngineTest {
+
+    private static final long FRAME_NANOS = 16666667L;
+
+    private static final int FIRST_NAME = 0;
+    private static final int LAST_NAME = 1;
+    private static final long DEBOUNCE_MS = 300;
+    private static final String BLOCKED = "Blocked";
+
+    /**
+     * Scheduler with its own queue and time
+     */
+    private static class ManualScheduler implements MainThreadScheduler {
+        private final List<Runnable> mRunnables = new ArrayList<>();
+        private final List<Long> mTimes = new ArrayList<>();
+        private long mNowMs = 0;
+
+        @Override
+        public void post(Runnable r) {
+            postDelayed(r, 0);
+        }
+
+        @Override
+        public void postDelayed(Runnable r, long delayMs) {
+            mRunnables.add(r);
+            mTimes.add(mNowMs + delayMs);
+        }
+
+        @Override
+        public void removeCallbacks(Runnable r) {
+            for (int i = mRunnables.size() - 1; i >= 0; i--) {
+                if (mRunnables.get(i) == r) {
+                    mRunnables.remove(i);
+                    mTimes.remove(i);
+                }
+            }
+        }
+
+        /**
+         * Move the time forward, running the messages due in order
+         */
+        void advance(long ms) {
+            mNowMs += ms;
+            while (true) {
+                int next = -1;
+                for (int i = 0; i < mTimes.size(); i++) {
+                    long time = mTimes.get(i);
+                    if (time <= mNowMs && (next == -1 || time < mTimes.get(next))) {
+                        next = i;
+                    }
+                }
+                if (next == -1) {
+                    return;
+                }
+                Runnable r = mRunnables.remove(next);
+                mTimes.remove(next);
+                r.run();
+            }
+        }
+    }
+
+    /**
+     * Executor running its tasks when asked, on the calling thread
+     */
+    private static class ManualExecutor implements Executor {
+        private final List<Runnable> mTasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            mTasks.add(command);
+        }
+
+        /**
+         * @return Number of tasks run
+         */
+        int runAll() {
+            int count = mTasks.size();
+            for (Runnable task : mTasks) {
+                task.run();
+            }
+            mTasks.clear();
+            return count;
+        }
+    }
+
+    /**
+     * Rule counting its runs
+     */
+    private static class CountingRule implements ValidationEngine.Rule {
+        private final ValidationEngine.Rule mRule;
+        int mRuns = 0;
+
+        CountingRule(ValidationEngine.Rule rule) {
+            mRule = rule;
+        }
+
+        @Override
+        public boolean validate(ValidationEngine.FieldValues values) {
+            mRuns++;
+            return mRule.validate(values);
+        }
+    }
+
+    private VirtualFrameClock mClock;
+    private ManualScheduler mScheduler;
+    private ManualExecutor mExecutor;
+    private ValidationEngine mEngine;
+    // Validity given to the listener, in order
+    private final List<Boolean> mPublished = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        mClock = new VirtualFrameClock(0);
+        mScheduler = new ManualScheduler();
+        mExecutor = new ManualExecutor();
+        mPublished.clear();
+        mEngine = new ValidationEngine(mClock, mExecutor, mScheduler,
+                new ValidationEngine.Listener() {
+                    @Override
+                    public void onValidityChanged(boolean valid) {
+                        mPublished.add(valid);
+                    }
+                });
+    }
+
+    private void frame() {
+        mClock.advance(FRAME_NANOS);
+    }
+
+    /**
+     * @return Asynchronous rule rejecting a blocked last name, counting its runs
+     */
+    private CountingRule addBlocklistRule() {
+        CountingRule rule = new CountingRule(new ValidationEngine.Rule() {
+            @Override
+            public boolean validate(ValidationEngine.FieldValues values) {
+                Object lastName = values.getValue(LAST_NAME);
+                return lastName != null && !lastName.equals(BLOCKED);
+            }
+        });
+        mEngine.addAsyncRule(rule, DEBOUNCE_MS, LAST_NAME);
+        return rule;
+    }
+
+    @Test
+    public void publishesOnlyWhenValidityFlips() {
+        mEngine.addRule(new NotEmptyRule(FIRST_NAME), FIRST_NAME);
+        mEngine.addRule(new NotEmptyRule(LAST_NAME), LAST_NAME);
+        frame();
+        // Starts invalid : nothing to publish
+        assertTrue(mPublished.isEmpty());
+
+        mEngine.setValue(FIRST_NAME, "Ada");
+        frame();
+        assertTrue(mPublished.isEmpty());
+
+        mEngine.setValue(LAST_NAME, "Lovelace");
+        frame();
+        assertEquals(1, mPublished.size());
+        assertTrue(mPublished.get(0));
+        assertTrue(mEngine.isValid());
+
+        // Still valid
+        mEngine.setValue(FIRST_NAME, "Augusta");
+        frame();
+        assertEquals(1, mPublished.size());
+
+        mEngine.setValue(FIRST_NAME, "");
+        frame();
+        assertEquals(2, mPublished.size());
+        assertFalse(mPublished.get(1));
+        assertFalse(mEngine.isValid());
+    }
+
+    @Test
+    public void publishesOncePerFrame() {
+        mEngine.addRule(new NotEmptyRule(FIRST_NAME), FIRST_NAME);
+        frame();
+
+        // Flips twice between two frames : nothing has changed on the next frame
+        mEngine.setValue(FIRST_NAME, "A");
+        mEngine.setValue(FIRST_NAME, "");
+        frame();
+        assertTrue(mPublished.isEmpty());
+
+        // Each keystroke of a frame is validated once
+        mEngine.setValue(FIRST_NAME, "A");
+        mEngine.setValue(FIRST_NAME, "Ad");
+        mEngine.setValue(FIRST_NAME, "Ada");
+        assertTrue(mPublished.isEmpty());
+        frame();
+        assertEquals(1, mPublished.size());
+        assertTrue(mPublished.get(0));
+
+        // Nothing changed : no frame requested
+        assertFalse(mClock.hasPendingCallbacks());
+    }
+
+    @Test
+    public void rerunsOnlyDependentRules() {
+        CountingRule firstName = new CountingRule(new NotEmptyRule(FIRST_NAME));
+        CountingRule lastName = new CountingRule(new NotEmptyRule(LAST_NAME));
+        CountingRule differentNames = new CountingRule(new ValidationEngine.Rule() {
+            @Override
+            public boolean validate(ValidationEngine.FieldValues values) {
+                Object first = values.getValue(FIRST_NAME);
+                return first == null || !first.equals(values.getValue(LAST_NAME));
+            }
+        });
+        mEngine.addRule(firstName, FIRST_NAME);
+        mEngine.addRule(lastName, LAST_NAME);
+        mEngine.addRule(differentNames, FIRST_NAME, LAST_NAME);
+        frame();
+        assertEquals(1, firstName.mRuns);
+        assertEquals(1, lastName.mRuns);
+        assertEquals(1, differentNames.mRuns);
+
+        mEngine.setValue(FIRST_NAME, "Ada");
+        mEngine.setValue(FIRST_NAME, "Ada L");
+        frame();
+        assertEquals(2, firstName.mRuns);
+        assertEquals(1, lastName.mRuns);
+        assertEquals(2, differentNames.mRuns);
+
+        mEngine.setValue(LAST_NAME, "Ada L");
+        frame();
+        assertEquals(2, firstName.mRuns);
+        assertEquals(2, lastName.mRuns);
+        assertEquals(3, differentNames.mRuns);
+        assertFalse(mEngine.isRuleValid(2));
+        assertTrue(mPublished.isEmpty());
+
+        // A field no rule reads
+        mEngine.setValue(5, "ignored");
+        frame();
+        assertEquals(2, firstName.mRuns);
+        assertEquals(2, lastName.mRuns);
+        assertEquals(3, differentNames.mRuns);
+    }
+
+    @Test
+    public void scalesToLargeForms() {
+        int fields = 1000;
+        CountingRule[] rules = new CountingRule[fields];
+        for (int field = 0; field < fields; field++) {
+            rules[field] = new CountingRule(new NotEmptyRule(field));
+            mEngine.addRule(rules[field], field);
+        }
+        for (int field = 0; field < fields; field++) {
+            mEngine.setValue(field, "value");
+        }
+        frame();
+        assertEquals(1, mPublished.size());
+        assertTrue(mPublished.get(0));
+
+        mEngine.setValue(500, "");
+        frame();
+        assertEquals(2, mPublished.size());
+        assertFalse(mPublished.get(1));
+        for (int field = 0; field < fields; field++) {
+            assertEquals(field == 500 ? 2 : 1, rules[field].mRuns);
+        }
+    }
+
+    @Test
+    public void debouncesAsyncRules() {
+        CountingRule blocklist = addBlocklistRule();
+        mEngine.setValue(LAST_NAME, "L");
+        mScheduler.advance(DEBOUNCE_MS - 1);
+        mEngine.setValue(LAST_NAME, "Lo");
+        mScheduler.advance(DEBOUNCE_MS - 1);
+        mEngine.setValue(LAST_NAME, "Lov");
+        mScheduler.advance(DEBOUNCE_MS - 1);
+        assertEquals(0, mExecutor.runAll());
+
+        mScheduler.advance(1);
+        assertEquals(1, mExecutor.runAll());
+        assertEquals(1, blocklist.mRuns);
+        // The result is delivered on the main thread
+        assertFalse(mEngine.isSettled());
+        mScheduler.advance(0);
+        assertTrue(mEngine.isSettled());
+        frame();
+        assertEquals(1, mPublished.size());
+        assertTrue(mPublished.get(0));
+    }
+
+    @Test
+    public void cancelsWorkNotStartedYet() {
+        CountingRule blocklist = addBlocklistRule();
+        mEngine.setValue(LAST_NAME, BLOCKED);
+        mScheduler.advance(DEBOUNCE_MS);
+
+        // Queued on the executor, then a keystroke
+        mEngine.setValue(LAST_NAME, "Lovelace");
+        mExecutor.runAll();
+        assertEquals(0, blocklist.mRuns);
+
+        mScheduler.advance(DEBOUNCE_MS);
+        mExecutor.runAll();
+        mScheduler.advance(0);
+        assertEquals(1, blocklist.mRuns);
+        frame();
+        assertEquals(1, mPublished.size());
+        assertTrue(mPublished.get(0));
+    }
+
+    @Test
+    public void dropsStaleResults() {
+        addBlocklistRule();
+        mEngine.setValue(LAST_NAME, "Lovelace");
+        mScheduler.advance(DEBOUNCE_MS);
+        mExecutor.runAll();
+
+        // Valid result in flight, then a keystroke making the form invalid
+        mEngine.setValue(LAST_NAME, BLOCKED);
+        mScheduler.advance(0);
+        frame();
+        assertFalse(mEngine.isRuleValid(0));
+        assertFalse(mEngine.isSettled());
+        assertTrue(mPublished.isEmpty());
+
+        mScheduler.advance(DEBOUNCE_MS);
+        mExecutor.runAll();
+        mScheduler.advance(0);
+        frame();
+        assertTrue(mEngine.isSettled());
+        assertFalse(mEngine.isRuleValid(0));
+        // Never seen valid
+        assertTrue(mPublished.isEmpty());
+    }
+
+    @Test
+    public void publishesValidOnlyOnceSettled() {
+        mEngine.addRule(new NotEmptyRule(FIRST_NAME), FIRST_NAME);
+        addBlocklistRule();
+        mEngine.setValue(FIRST_NAME, "Ada");
+        mEngine.setValue(LAST_NAME, "Lovelace");
+        frame();
+        // The synchronous rule is valid, the asynchronous one hasn't run
+        assertTrue(mEngine.isRuleValid(0));
+        assertTrue(mPublished.isEmpty());
+
+        mScheduler.advance(DEBOUNCE_MS);
+        mExecutor.runAll();
+        mScheduler.advance(0);
+        // Published on the next frame
+        assertTrue(mPublished.isEmpty());
+        frame();
+        assertEquals(1, mPublished.size());
+        assertTrue(mPublished.get(0));
+
+        // Invalid synchronous rule while the asynchronous one is unsettled : published right away
+        mEngine.setValue(LAST_NAME, BLOCKED);
+        mEngine.setValue(FIRST_NAME, "");
+        frame();
+        assertFalse(mEngine.isSettled());
+        assertEquals(2, mPublished.size());
+        assertFalse(mPublished.get(1));
+        assertFalse(mEngine.isValid());
+
+        // Valid again, but the asynchronous rule is still unsettled : not published
+        mEngine.setValue(FIRST_NAME, "Ada");
+        frame();
+        assertFalse(mEngine.isSettled());
+        assertEquals(2, mPublished.size());
+        assertFalse(mEngine.isValid());
+
+        // The asynchronous rule settles invalid : no flip
+        mScheduler.advance(DEBOUNCE_MS);
+        mExecutor.runAll();
+        mScheduler.advance(0);
+        frame();
+        assertTrue(mEngine.isSettled());
+        assertEquals(2, mPublished.size());
+        assertFalse(mEngine.isValid());
+    }
+
+    @Test
+    public void throwingAsyncRuleIsInvalid() {
+        mEngine.addAsyncRule(new ValidationEngine.Rule() {
+            @Override
+            public boolean validate(ValidationEngine.FieldValues values) {
+                if (BLOCKED.equals(values.getValue(LAST_NAME))) {
+                    throw new IllegalStateException("Lookup failed");
+                }
+                return true;
+            }
+        }, DEBOUNCE_MS, LAST_NAME);
+
+        mEngine.setValue(LAST_NAME, BLOCKED);
+        mScheduler.advance(DEBOUNCE_MS);
+        mExecutor.runAll();
+        mScheduler.advance(0);
+        frame();
+        assertTrue(mEngine.isSettled());
+        assertFalse(mEngine.isRuleValid(0));
+        assertTrue(mPublished.isEmpty());
+
+        // Still validated after the failure
+        mEngine.setValue(LAST_NAME, "Lovelace");
+        mScheduler.advance(DEBOUNCE_MS);
+        mExecutor.runAll();
+        mScheduler.advance(0);
+        frame();
+        assertTrue(mEngine.isSettled());
+        assertEquals(1, mPublished.size());
+        assertTrue(mPublished.get(0));
+    }
+}